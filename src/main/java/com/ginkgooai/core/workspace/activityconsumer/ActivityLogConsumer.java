@@ -1,108 +1,494 @@
 package com.ginkgooai.core.workspace.activityconsumer;
 
 import com.ginkgooai.core.common.enums.ActivityType;
+import com.ginkgooai.core.common.exception.ResourceNotFoundException;
 import com.ginkgooai.core.common.message.ActivityLogMessage;
-import com.ginkgooai.core.common.queue.QueueInterface;
+import com.ginkgooai.core.workspace.config.mq.ReliableQueue;
+import com.ginkgooai.core.workspace.config.properties.ActivityLogConsumerProperties;
 import com.ginkgooai.core.workspace.domain.ActivityLog;
+import com.ginkgooai.core.workspace.metrics.ActivityLogMetrics;
 import com.ginkgooai.core.workspace.service.ActivityLogService;
 import com.ginkgooai.core.workspace.service.WorkspaceContextService;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
 import org.springframework.util.ObjectUtils;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Consumer for processing activity log messages from Redis queue
+ * Runs as a staged pipeline: a poller thread receives rounds of messages, each round is enriched
+ * (workspace resolution, type parsing) on a virtual thread, and a writer thread persists the enriched
+ * rounds in polling order. Stages are connected through a bounded hand-off queue, so a slow database
+ * blocks the writer, fills the queue and in turn throttles polling.
+ * On shutdown polling stops first, the writer drains what was already received and anything it could
+ * not persist within the shutdown timeout is returned to the queue.
  */
 @Component
 @Slf4j
 @RequiredArgsConstructor
-public class ActivityLogConsumer {
+public class ActivityLogConsumer implements SmartLifecycle {
 
     private static final String ACTIVITY_LOG_QUEUE = "activity_log_queue";
 
-    private final QueueInterface queueInterface;
+    private final ReliableQueue queue;
     private final ActivityLogService activityLogService;
     private final WorkspaceContextService workspaceContextService;
+    private final ActivityLogConsumerProperties properties;
+    private final ThreadPoolTaskExecutor activityLogWorkerExecutor;
+    private final SimpleAsyncTaskExecutor activityLogEnrichExecutor;
+    private final ActivityLogMetrics metrics;
+    private final ActivityLogJournal journal;
 
-    @Value("${activity.log.consumer.batch-size:100}")
-    private int batchSize;
+    /**
+     * Enrichment results in polling order, consumed by the writer
+     */
+    private BlockingQueue<CompletableFuture<List<EnrichedLog>>> handoff;
+
+    private volatile boolean running;
+
+    private volatile boolean pollerDone;
+
+    /**
+     * Writer stops taking new rounds after this instant, set on shutdown
+     */
+    private volatile long drainDeadline = Long.MAX_VALUE;
 
-    @Value("${activity.log.consumer.max-wait-time:5000}")
-    private long maxWaitTimeMs;
+    /**
+     * Messages received by this instance and neither acknowledged nor dead-lettered yet, by message id
+     */
+    private final Map<String, ActivityLogMessage> inProcess = new ConcurrentHashMap<>();
 
-    @Value("${activity.log.consumer.polling-interval:1000}")
-    private long pollingIntervalMs;
+    private final AtomicLong drained = new AtomicLong();
 
     /**
-     * Scheduled method to consume messages from the activity log queue
-     * Uses batch processing for better performance
-     * Implements circuit breaker pattern to handle downstream service failures
+     * Polling is paused until this instant after the database or Redis failed for a transient reason
      */
-    @Scheduled(fixedDelayString = "${activity.log.consumer.polling-interval:1000}")
-    public void consumeActivityLogs() {
+    private volatile long pausedUntil;
+
+    private final AtomicLong backoff = new AtomicLong();
+
+    private Thread poller;
+
+    private Thread writer;
+
+    private record EnrichedLog(ActivityLogMessage message, ActivityLog log) {
+    }
+
+    @Override
+    public void start() {
+        metrics.registerQueue(ACTIVITY_LOG_QUEUE, queue);
+        if (journal.isEnabled()) {
+            metrics.registerJournal(journal);
+        }
+        handoff = new ArrayBlockingQueue<>(properties.getPipelineCapacity());
+        drainDeadline = Long.MAX_VALUE;
+        pollerDone = false;
+        running = true;
+        poller = Thread.ofPlatform().name("activity-poller").start(this::pollActivityLogs);
+        writer = Thread.ofPlatform().name("activity-writer").start(this::writeActivityLogs);
+    }
+
+    /**
+     * Stop polling, let the writer persist what is already in the pipeline until the shutdown
+     * timeout and return every message still in process to the queue
+     */
+    @Override
+    public void stop() {
+        running = false;
+        long deadline = System.currentTimeMillis() + properties.getShutdownTimeout();
+        drainDeadline = deadline;
+        drained.set(0);
+        try {
+            awaitTermination(poller, deadline);
+            awaitTermination(writer, deadline);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        List<ActivityLogMessage> leftovers = List.copyOf(inProcess.values());
+        if (!leftovers.isEmpty()) {
+            try {
+                queue.release(ACTIVITY_LOG_QUEUE, leftovers);
+                inProcess.clear();
+            } catch (Exception e) {
+                log.error("Failed to return {} activity logs to the queue, they will be redelivered after the visibility timeout",
+                        leftovers.size(), e);
+            }
+        }
+        log.info("Activity log consumer stopped: persisted {} messages while draining, returned {} to the queue",
+                drained.get(), leftovers.size());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
 
-        List<ActivityLogMessage> batch =  queueInterface.getMessages(ACTIVITY_LOG_QUEUE, batchSize, ActivityLogMessage.class);
-        if (!ObjectUtils.isEmpty(batch)) {
-            processBatch(batch);
+    private static void awaitTermination(Thread thread, long deadline) throws InterruptedException {
+        if (thread == null) {
+            return;
         }
+        thread.join(Math.max(1, deadline - System.currentTimeMillis()));
+        if (thread.isAlive()) {
+            thread.interrupt();
+            thread.join(1000);
+        }
+    }
+
+    /**
+     * Poll stage
+     * Each round blocks until messages are available and collects up to poolSize * batchSize messages.
+     * Enrichment is started right away; handing it over blocks while the pipeline is full.
+     */
+    private void pollActivityLogs() {
+        try {
+            while (running) {
+                long pause = pausedUntil - System.currentTimeMillis();
+                if (pause > 0) {
+                    // Sleep in slices so a shutdown is noticed while backing off
+                    Thread.sleep(Math.min(pause, properties.getBlockTimeout()));
+                    continue;
+                }
+                try {
+                    List<ActivityLogMessage> round = receiveRound();
+                    round.forEach(message -> inProcess.put(message.getMsgId(), message));
+                    if (!round.isEmpty()) {
+                        handoff.put(CompletableFuture.supplyAsync(() -> enrich(round), activityLogEnrichExecutor));
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (Exception e) {
+                    log.error("Activity log poller failed, backing off for {}ms", properties.getPollingInterval(), e);
+                    Thread.sleep(properties.getPollingInterval());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            pollerDone = true;
+        }
+    }
+
+    /**
+     * Block for the first messages, then keep topping the round up until it is full
+     * or max-wait-time has passed since the first message arrived
+     */
+    private List<ActivityLogMessage> receiveRound() {
+        int pollSize = properties.getPollSize();
+        List<ActivityLogMessage> messages = queue.receive(ACTIVITY_LOG_QUEUE, pollSize, ActivityLogMessage.class,
+                Duration.ofMillis(properties.getBlockTimeout()));
+        if (messages.isEmpty()) {
+            return messages;
+        }
+        // Start timing once data arrived so idle blocking does not dominate the poll latency
+        Timer.Sample sample = metrics.startSample();
+        if (messages.size() >= pollSize || properties.getMaxWaitTime() <= 0) {
+            metrics.recordPoll(sample, messages.size());
+            return messages;
+        }
+
+        List<ActivityLogMessage> round = new ArrayList<>(messages);
+        long deadline = System.currentTimeMillis() + properties.getMaxWaitTime();
+        long remaining;
+        while (round.size() < pollSize && (remaining = deadline - System.currentTimeMillis()) > 0) {
+            round.addAll(queue.receive(ACTIVITY_LOG_QUEUE, pollSize - round.size(), ActivityLogMessage.class,
+                    Duration.ofMillis(remaining)));
+        }
+        metrics.recordPoll(sample, round.size());
+        return round;
+    }
+
+    /**
+     * Enrich stage, runs on a virtual thread per round
+     * Messages that can never be converted are dead-lettered here. A round that cannot be enriched at all
+     * is handled like a batch that failed to persist: on a transient failure (the database or Redis being
+     * unavailable) it is handed back to the queue without using up an attempt and polling backs off,
+     * otherwise it stays in flight and is redelivered later.
+     */
+    private List<EnrichedLog> enrich(List<ActivityLogMessage> round) {
+        Timer.Sample sample = metrics.startSample();
+        try {
+            Map<String, String> workspaces = resolveWorkspaces(round);
+
+            List<EnrichedLog> accepted = new ArrayList<>(round.size());
+            List<ActivityLogMessage> rejected = new ArrayList<>();
+            for (ActivityLogMessage message : round) {
+                try {
+                    accepted.add(new EnrichedLog(message, convertToEntity(message, workspaces)));
+                } catch (IllegalArgumentException | ResourceNotFoundException e) {
+                    log.error("Rejecting unprocessable activity log message: {}", message, e);
+                    rejected.add(message);
+                }
+            }
+            queue.deadLetter(ACTIVITY_LOG_QUEUE, rejected);
+            rejected.forEach(message -> inProcess.remove(message.getMsgId()));
+            metrics.recordRejected(rejected.size());
+            metrics.recordConvert(sample);
+            return accepted;
+        } catch (RuntimeException e) {
+            if (isTransient(e)) {
+                retryLater(round, e);
+            } else {
+                leaveForRedelivery(round, e);
+            }
+            return List.of();
+        }
+    }
+
+    /**
+     * Resolve the workspace of every creator whose messages carry no workspace id,
+     * with one pipelined Redis call and at most one database query for the whole round
+     */
+    private Map<String, String> resolveWorkspaces(List<ActivityLogMessage> messages) {
+        List<String> creators = messages.stream()
+                .filter(message -> ObjectUtils.isEmpty(message.getWorkspaceId()))
+                .map(ActivityLogMessage::getCreatedBy)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        return creators.isEmpty() ? Map.of() : workspaceContextService.getUserWorkspaceContexts(creators);
     }
 
     /**
-     * Process a batch of activity log messages
-     * Delegates to service layer for actual persistence
+     * Persist stage
+     * Takes enriched rounds in polling order and coalesces every following round whose enrichment
+     * has already finished, so small rounds are written together. Keeps draining the hand-off queue
+     * after polling stopped, until it is empty or the shutdown timeout has passed.
+     */
+    private void writeActivityLogs() {
+        int pollSize = properties.getPollSize();
+        while ((!pollerDone || !handoff.isEmpty()) && System.currentTimeMillis() < drainDeadline) {
+            try {
+                CompletableFuture<List<EnrichedLog>> next = handoff.poll(properties.getBlockTimeout(), TimeUnit.MILLISECONDS);
+                if (next == null) {
+                    continue;
+                }
+                List<EnrichedLog> logs = new ArrayList<>(awaitEnriched(next));
+                while (logs.size() < pollSize && (next = handoff.peek()) != null && next.isDone()) {
+                    logs.addAll(awaitEnriched(handoff.remove()));
+                }
+                if (!logs.isEmpty()) {
+                    dispatch(logs);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Activity log writer failed", e);
+            }
+        }
+    }
+
+    private List<EnrichedLog> awaitEnriched(CompletableFuture<List<EnrichedLog>> enriched) {
+        try {
+            return enriched.join();
+        } catch (CompletionException | CancellationException e) {
+            return List.of();
+        }
+    }
+
+    /**
+     * Split logs into partitions and wait for all of them to be persisted.
+     * Logs of one partition are handled sequentially by a single worker, so
+     * per-workspace ordering is kept while different partitions run in parallel.
+     */
+    private void dispatch(List<EnrichedLog> logs) {
+        Map<Integer, List<EnrichedLog>> partitions = new LinkedHashMap<>();
+        for (EnrichedLog enriched : logs) {
+            partitions.computeIfAbsent(partitionOf(enriched.message()), key -> new ArrayList<>()).add(enriched);
+        }
+        log.debug("Dispatching {} activity logs across {} partitions", logs.size(), partitions.size());
+
+        CompletableFuture<?>[] futures = partitions.values().stream()
+                .map(partition -> CompletableFuture.runAsync(() -> processPartition(partition), activityLogWorkerExecutor))
+                .toArray(CompletableFuture[]::new);
+
+        CompletableFuture.allOf(futures).exceptionally(e -> null).join();
+    }
+
+    /**
+     * Messages without a workspace are resolved from their creator, so the creator is
+     * used as partition key to keep them next to the rest of that user's activity.
+     */
+    private int partitionOf(ActivityLogMessage message) {
+        String key = ObjectUtils.isEmpty(message.getWorkspaceId()) ? message.getCreatedBy() : message.getWorkspaceId();
+        return Math.floorMod(Objects.hashCode(key), properties.getPartitionCount());
+    }
+
+    private void processPartition(List<EnrichedLog> partition) {
+        int batchSize = properties.getBatchSize();
+        for (int from = 0; from < partition.size(); from += batchSize) {
+            processBatch(partition.subList(from, Math.min(from + batchSize, partition.size())));
+        }
+    }
+
+    /**
+     * Persist a batch of enriched activity logs
+     * Delegates to service layer for actual persistence and acknowledges the batch after commit.
+     * When the database is unavailable the batch is spilled to the local journal and acknowledged, so the queue
+     * keeps draining; without a journal it is handed back to the queue without using up an attempt and polling
+     * backs off. Only failures caused by the batch itself count against the attempt limit.
      *
-     * @param batch List of messages to process
+     * @param batch List of enriched logs to persist
      */
-    private void processBatch(List<ActivityLogMessage> batch) {
+    private void processBatch(List<EnrichedLog> batch) {
+        List<ActivityLogMessage> messages = batch.stream().map(EnrichedLog::message).toList();
+        List<ActivityLog> logs = batch.stream().map(EnrichedLog::log).toList();
         try {
             log.debug("Processing batch of {} activity logs", batch.size());
 
-            List<ActivityLog> logs = batch.stream()
-                    .map(this::convertToEntity)
-                    .toList();
-
-            activityLogService.createLogs(logs);
+            Timer.Sample sample = metrics.startSample();
+            int inserted = activityLogService.createLogs(logs);
+            metrics.recordPersist(sample, batch.size(), inserted);
+            metrics.recordCommitted(messages);
+            queue.ack(ACTIVITY_LOG_QUEUE, messages);
+            messages.forEach(message -> inProcess.remove(message.getMsgId()));
+            backoff.set(0);
+            if (!running) {
+                drained.addAndGet(messages.size());
+            }
 
             log.debug("Successfully processed batch of {} activity logs", batch.size());
         } catch (Exception e) {
-            log.error("Failed to process batch of activity logs", e);
-            // TODO: Implement retry logic and dead-letter queue handling 
+            if (!isTransient(e)) {
+                leaveForRedelivery(messages, e);
+                return;
+            }
+            if (journal.append(logs)) {
+                log.warn("Database unavailable, spilled batch of {} activity logs to the journal: {}", batch.size(),
+                        e.getMessage());
+                metrics.recordSpilled(batch.size());
+                queue.ack(ACTIVITY_LOG_QUEUE, messages);
+                messages.forEach(message -> inProcess.remove(message.getMsgId()));
+                return;
+            }
+            retryLater(messages, e);
         }
     }
 
     /**
-     * Convert message to entity with proper formatting
+     * Database or Redis outages, timeouts and lock conflicts, as opposed to conversion or constraint errors
+     * that fail again on every delivery
+     */
+    static boolean isTransient(Exception e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof TransactionException;
+    }
+
+    private void leaveForRedelivery(List<ActivityLogMessage> messages, Exception e) {
+        log.error("Failed to process {} activity logs, leaving them for redelivery", messages.size(), e);
+        metrics.recordFailed(messages.size());
+        if (running) {
+            // Redelivered after the visibility timeout; only returned right away when shutting down
+            messages.forEach(message -> inProcess.remove(message.getMsgId()));
+        }
+    }
+
+    /**
+     * Hand messages that failed for a transient reason back to the queue and pause polling
      */
-    private ActivityLog convertToEntity(ActivityLogMessage message) {
+    private void retryLater(List<ActivityLogMessage> messages, Exception e) {
+        long delay = backOff();
+        log.warn("Storage unavailable, returning {} activity logs to the queue and pausing polling for {}ms: {}",
+                messages.size(), delay, e.getMessage());
+        metrics.recordFailed(messages.size());
         try {
-            // Get or resolve workspace ID
-            String workspaceId = ObjectUtils.isEmpty(message.getWorkspaceId()) ?
-                    workspaceContextService.getUserWorkspaceContext(message.getCreatedBy()) :
-                    message.getWorkspaceId();
-
-            // Convert activity type
-            ActivityType activityType = ActivityType.valueOf(message.getActivityType());
-
-            return ActivityLog.builder()
-                    .workspaceId(workspaceId)
-                    .projectId(message.getProjectId())
-                    .applicationId(message.getApplicationId())
-                    .activityType(activityType)
-                    .description(activityType.getTemplate())
-                    .variables(message.getVariables())
-                    .attachments(message.getAttachments())
-                    .createdBy(message.getCreatedBy())
-                    .createdAt(message.getCreatedAt())
-                    .build();
+            queue.retry(ACTIVITY_LOG_QUEUE, messages);
+            messages.forEach(message -> inProcess.remove(message.getMsgId()));
+        } catch (Exception retryFailure) {
+            log.error("Failed to return {} activity logs to the queue", messages.size(), retryFailure);
+            leaveForRedelivery(messages, e);
+        }
+    }
 
-        } catch (Exception e) {
-            log.error("Failed to convert message to entity: {}", message, e);
-            throw new RuntimeException("Failed to convert activity log message", e);
+    /**
+     * Pause polling, doubling the pause for every failure after the previous pause has passed
+     *
+     * @return the pause in milliseconds
+     */
+    private long backOff() {
+        long now = System.currentTimeMillis();
+        if (now < pausedUntil) {
+            // Other batches of the same round failing as well do not extend the pause
+            return pausedUntil - now;
+        }
+        long delay = backoff.updateAndGet(previous -> previous == 0 ? properties.getPollingInterval()
+                : Math.min(previous * 2, properties.getMaxBackoff()));
+        pausedUntil = now + delay;
+        return delay;
+    }
+
+    /**
+     * Convert message to entity with proper formatting
+     */
+    private ActivityLog convertToEntity(ActivityLogMessage message, Map<String, String> workspaces) {
+        // Get or resolve workspace ID
+        String workspaceId = message.getWorkspaceId();
+        if (ObjectUtils.isEmpty(workspaceId)) {
+            workspaceId = workspaces.get(message.getCreatedBy());
+            if (workspaceId == null) {
+                throw new ResourceNotFoundException("Workspace", "userId", message.getCreatedBy());
+            }
+        }
+
+        // Convert activity type
+        ActivityType activityType = ActivityType.valueOf(message.getActivityType());
+
+        return ActivityLog.builder()
+                .workspaceId(workspaceId)
+                .projectId(message.getProjectId())
+                .applicationId(message.getApplicationId())
+                .activityType(activityType)
+                .description(activityType.getTemplate())
+                .variables(message.getVariables())
+                .attachments(message.getAttachments())
+                .createdBy(message.getCreatedBy())
+                .messageId(message.getMsgId())
+                .createdAt(createdAt(message))
+                .build();
+    }
+
+    /**
+     * Creation time of the log, part of the (message_id, created_at) deduplication key
+     * Taken from the message itself, falling back to the time it was produced, so every redelivery and
+     * journal replay of a message yields the same key. Never derived from the time of the insert.
+     */
+    private static LocalDateTime createdAt(ActivityLogMessage message) {
+        if (message.getCreatedAt() != null) {
+            return message.getCreatedAt();
+        }
+        if (message.getTimestamp() <= 0) {
+            throw new IllegalArgumentException("Activity log message " + message.getMsgId() + " carries no creation time");
         }
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(message.getTimestamp()), ZoneId.systemDefault());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,264 @@
+package com.ginkgooai.core.workspace.activityconsumer;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ginkgooai.core.workspace.config.properties.ActivityLogJournalProperties;
+import com.ginkgooai.core.workspace.domain.ActivityLog;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Local append-only journal for activity log batches that could not be persisted
+ * The journal is a sequence of fixed-size memory-mapped segments. Each record is one batch:
+ * [int length][int crc32][json payload], a zero length marks the end of written data.
+ * Only the newest segment is written to; older segments are sealed and replayed oldest first,
+ * then deleted. A torn record at the end of a segment is detected through its checksum and ignored.
+ * Records damaged elsewhere are skipped by their length, and a segment with damaged records or batches
+ * the database rejects is kept aside as a .bad file instead of being deleted.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ActivityLogJournal {
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final String QUARANTINE_SUFFIX = ".bad";
+    private static final int HEADER_BYTES = 8;
+
+    private static final TypeReference<List<SpilledActivityLog>> BATCH_TYPE = new TypeReference<>() {
+    };
+
+    private final ActivityLogJournalProperties properties;
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Sealed segments, oldest first
+     */
+    private final Deque<Path> sealed = new ArrayDeque<>();
+
+    private final AtomicLong pendingBatches = new AtomicLong();
+
+    private Path directory;
+
+    private Path activePath;
+
+    private MappedByteBuffer active;
+
+    private int activeBatches;
+
+    private long nextSequence;
+
+    @PostConstruct
+    public void open() throws IOException {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        directory = Path.of(properties.getDirectory());
+        Files.createDirectories(directory);
+
+        List<Path> existing;
+        try (Stream<Path> files = Files.list(directory)) {
+            existing = files.filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX)
+                            && path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted((a, b) -> Long.compare(sequenceOf(a), sequenceOf(b)))
+                    .toList();
+        }
+        for (Path segment : existing) {
+            sealed.addLast(segment);
+            pendingBatches.addAndGet(read(segment).batches().size());
+            nextSequence = Math.max(nextSequence, sequenceOf(segment) + 1);
+        }
+        if (!existing.isEmpty()) {
+            log.info("Recovered {} journal segments with {} batches waiting for replay", existing.size(), pendingBatches.get());
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Append a batch and force it to disk
+     *
+     * @return false if the journal is disabled, full or the batch could not be written
+     */
+    public synchronized boolean append(List<ActivityLog> logs) {
+        if (!properties.isEnabled()) {
+            return false;
+        }
+        try {
+            byte[] payload = objectMapper.writeValueAsBytes(logs.stream().map(SpilledActivityLog::from).toList());
+            int required = HEADER_BYTES + payload.length + Integer.BYTES;
+            if (required > properties.getSegmentSize()) {
+                log.warn("Batch of {} bytes does not fit into a journal segment", payload.length);
+                return false;
+            }
+            if ((active == null || active.remaining() < required) && !roll()) {
+                return false;
+            }
+
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            int position = active.position();
+            active.position(position + Integer.BYTES);
+            active.putInt((int) crc.getValue());
+            active.put(payload);
+            // Publish the length last so a crash mid-write never exposes a partial record
+            active.putInt(position, payload.length);
+            active.force();
+
+            activeBatches++;
+            pendingBatches.incrementAndGet();
+            return true;
+        } catch (IOException | UncheckedIOException e) {
+            log.error("Failed to append batch to activity log journal", e);
+            return false;
+        }
+    }
+
+    /**
+     * Oldest segment waiting for replay, sealing the active segment if nothing older is left
+     */
+    public synchronized Path nextSegment() {
+        if (sealed.isEmpty() && active != null && activeBatches > 0) {
+            seal();
+        }
+        return sealed.peekFirst();
+    }
+
+    /**
+     * Read all intact batches of a sealed segment
+     * A record failing its checksum or decoding is skipped and counted as damaged, unless it is the last record
+     * of the segment and its checksum fails: that is a write torn by a crash, whose batch was never acknowledged.
+     */
+    public Contents read(Path segment) throws IOException {
+        List<List<ActivityLog>> batches = new ArrayList<>();
+        int damaged = 0;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            boolean torn = false;
+            while (buffer.remaining() >= HEADER_BYTES) {
+                int length = buffer.getInt();
+                int checksum = buffer.getInt();
+                if (length == 0) {
+                    break;
+                }
+                if (torn) {
+                    log.error("Journal segment {} has a damaged record before offset {}", segment,
+                            buffer.position() - HEADER_BYTES);
+                    damaged++;
+                    torn = false;
+                }
+                if (length < 0 || length > buffer.remaining()) {
+                    log.error("Journal segment {} has a damaged record length at offset {}, ignoring the rest of it",
+                            segment, buffer.position() - HEADER_BYTES);
+                    damaged++;
+                    break;
+                }
+                byte[] payload = new byte[length];
+                buffer.get(payload);
+                CRC32 crc = new CRC32();
+                crc.update(payload);
+                if ((int) crc.getValue() != checksum) {
+                    torn = true;
+                    continue;
+                }
+                try {
+                    batches.add(objectMapper.readValue(payload, BATCH_TYPE).stream()
+                            .map(SpilledActivityLog::toEntity)
+                            .toList());
+                } catch (IOException | RuntimeException e) {
+                    log.error("Journal segment {} has a batch that cannot be decoded: {}", segment, e.getMessage());
+                    damaged++;
+                }
+            }
+            if (torn) {
+                log.warn("Skipping torn record at the end of journal segment {}", segment);
+            }
+        }
+        return new Contents(batches, damaged);
+    }
+
+    /**
+     * Drop a segment once all of its batches have been replayed
+     *
+     * @param quarantine keep the segment as a .bad file for inspection instead of deleting it
+     */
+    public synchronized void completed(Path segment, int batches, boolean quarantine) throws IOException {
+        sealed.remove(segment);
+        if (quarantine) {
+            Path bad = segment.resolveSibling(segment.getFileName() + QUARANTINE_SUFFIX);
+            Files.move(segment, bad, StandardCopyOption.REPLACE_EXISTING);
+            log.error("Moved journal segment {} aside to {}, it holds records that could not be replayed",
+                    segment.getFileName(), bad.getFileName());
+        } else {
+            Files.deleteIfExists(segment);
+        }
+        pendingBatches.addAndGet(-batches);
+    }
+
+    public long getPendingBatches() {
+        return pendingBatches.get();
+    }
+
+    public synchronized int getSegmentCount() {
+        return sealed.size() + (active == null ? 0 : 1);
+    }
+
+    private boolean roll() throws IOException {
+        // Rolling adds a segment to the ones on disk, the full active one is sealed
+        if (getSegmentCount() >= properties.getMaxSegments()) {
+            log.warn("Activity log journal is full ({} segments), not spilling", getSegmentCount());
+            return false;
+        }
+        if (active != null) {
+            seal();
+        }
+        activePath = directory.resolve(SEGMENT_PREFIX + nextSequence++ + SEGMENT_SUFFIX);
+        try (FileChannel channel = FileChannel.open(activePath, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            active = channel.map(FileChannel.MapMode.READ_WRITE, 0, properties.getSegmentSize());
+        }
+        activeBatches = 0;
+        return true;
+    }
+
+    private void seal() {
+        active.force();
+        sealed.addLast(activePath);
+        active = null;
+        activePath = null;
+        activeBatches = 0;
+    }
+
+    /**
+     * Intact batches of a segment and the number of records that had to be skipped
+     */
+    public record Contents(List<List<ActivityLog>> batches, int damagedRecords) {
+    }
+
+    private static long sequenceOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
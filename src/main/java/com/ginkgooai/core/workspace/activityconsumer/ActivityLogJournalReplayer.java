@@ -0,0 +1,61 @@
+package com.ginkgooai.core.workspace.activityconsumer;
+
+import com.ginkgooai.core.workspace.domain.ActivityLog;
+import com.ginkgooai.core.workspace.service.ActivityLogService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Replays spilled activity log batches into the database once it is reachable again
+ * Segments are replayed oldest first and deleted afterwards. A segment interrupted by a database
+ * outage is replayed again from its start; already ingested rows are skipped by message id.
+ * Batches the database rejects for good are skipped so they cannot block later segments; their
+ * segment is then kept aside as a .bad file instead of being deleted.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ActivityLogJournalReplayer {
+
+    private final ActivityLogJournal journal;
+    private final ActivityLogService activityLogService;
+
+    @Scheduled(fixedDelayString = "${activity.log.journal.replay-interval:5000}")
+    public void replay() {
+        if (!journal.isEnabled()) {
+            return;
+        }
+        try {
+            Path segment;
+            while ((segment = journal.nextSegment()) != null) {
+                ActivityLogJournal.Contents contents = journal.read(segment);
+                int inserted = 0;
+                int rejected = 0;
+                for (List<ActivityLog> batch : contents.batches()) {
+                    try {
+                        inserted += activityLogService.createLogs(batch);
+                    } catch (Exception e) {
+                        if (ActivityLogConsumer.isTransient(e)) {
+                            throw e;
+                        }
+                        log.error("Skipping batch of {} activity logs of journal segment {} the database rejects",
+                                batch.size(), segment.getFileName(), e);
+                        rejected++;
+                    }
+                }
+                journal.completed(segment, contents.batches().size(), rejected > 0 || contents.damagedRecords() > 0);
+                log.info("Replayed journal segment {}: {} batches, {} activity logs inserted, {} batches rejected, "
+                                + "{} records damaged", segment.getFileName(), contents.batches().size(), inserted,
+                        rejected, contents.damagedRecords());
+            }
+        } catch (Exception e) {
+            log.warn("Activity log journal replay paused, {} batches pending: {}", journal.getPendingBatches(),
+                    e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.ginkgooai.core.workspace.activityconsumer;
+
+import com.ginkgooai.core.common.enums.ActivityType;
+import com.ginkgooai.core.workspace.domain.ActivityLog;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Journal representation of an activity log that could not be persisted
+ */
+@Data
+@NoArgsConstructor
+public class SpilledActivityLog {
+
+    private String activityType;
+    private String description;
+    private String workspaceId;
+    private String projectId;
+    private String applicationId;
+    private String createdBy;
+    private String messageId;
+    private String createdAt;
+    private Map<String, Object> variables;
+    private Map<String, Object> attachments;
+
+    public static SpilledActivityLog from(ActivityLog activityLog) {
+        SpilledActivityLog spilled = new SpilledActivityLog();
+        spilled.setActivityType(activityLog.getActivityType().name());
+        spilled.setDescription(activityLog.getDescription());
+        spilled.setWorkspaceId(activityLog.getWorkspaceId());
+        spilled.setProjectId(activityLog.getProjectId());
+        spilled.setApplicationId(activityLog.getApplicationId());
+        spilled.setCreatedBy(activityLog.getCreatedBy());
+        spilled.setMessageId(activityLog.getMessageId());
+        spilled.setCreatedAt(activityLog.getCreatedAt() == null ? null : activityLog.getCreatedAt().toString());
+        spilled.setVariables(activityLog.getVariables());
+        spilled.setAttachments(activityLog.getAttachments());
+        return spilled;
+    }
+
+    public ActivityLog toEntity() {
+        return ActivityLog.builder()
+                .activityType(ActivityType.valueOf(activityType))
+                .description(description)
+                .workspaceId(workspaceId)
+                .projectId(projectId)
+                .applicationId(applicationId)
+                .createdBy(createdBy)
+                .messageId(messageId)
+                .createdAt(createdAt == null ? null : LocalDateTime.parse(createdAt))
+                .variables(variables)
+                .attachments(attachments)
+                .build();
+    }
+}
@@ -6,11 +6,22 @@ import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.util.Collection;
+import java.util.List;
 
 @FeignClient(name = "identity-service", url="${core-identity-uri}", configuration = FeignConfig.class)
 public interface UserClient {
     @GetMapping("/users/{id}")
     ResponseEntity<UserInfo> getUserById(@PathVariable String id);
+
+    /**
+     * Resolve several users in one call, unknown ids are left out of the result
+     */
+    @PostMapping("/users/batch")
+    ResponseEntity<List<UserInfo>> getUsersByIds(@RequestBody Collection<String> ids);
     
     @GetMapping("/users/validate/{id}")
     boolean validateUser(@PathVariable String id);
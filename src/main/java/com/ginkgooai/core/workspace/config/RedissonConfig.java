@@ -2,6 +2,7 @@ package com.ginkgooai.core.workspace.config;
 
 import org.redisson.Redisson;
 import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
 import org.redisson.config.Config;
 import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
 import org.springframework.context.annotation.Bean;
@@ -22,4 +23,14 @@ public class RedissonConfig {
         }
         return Redisson.create(config);
     }
-}
\ No newline at end of file
+
+    /**
+     * Codec used for queued messages and their dead-letter queues
+     * Kept at Redisson's default, the codec the producing services write with; see QueueCodecSizeTest for how
+     * it compares to registered Kryo classes, JSON and compression.
+     */
+    @Bean
+    public Codec queueCodec(RedissonClient redissonClient) {
+        return redissonClient.getConfig().getCodec();
+    }
+}
@@ -1,9 +1,12 @@
 package com.ginkgooai.core.workspace.config;
 
+import com.ginkgooai.core.workspace.config.properties.ActivityLogConsumerProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.scheduling.config.ScheduledTaskRegistrar;
 
@@ -23,4 +26,33 @@ public class SchedulingConfig implements SchedulingConfigurer {
         scheduler.initialize();
         return scheduler;
     }
+
+    /**
+     * Worker pool persisting activity log partitions in parallel.
+     * The dispatcher waits for every submitted partition before polling again,
+     * so the queue capacity never needs to exceed the partition count.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor activityLogWorkerExecutor(ActivityLogConsumerProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getPoolSize());
+        executor.setMaxPoolSize(properties.getPoolSize());
+        executor.setQueueCapacity(properties.getPartitionCount());
+        executor.setThreadNamePrefix("activity-worker-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Virtual threads enriching polled activity log rounds, mostly waiting on Redis and the database.
+     * Concurrency is bounded by the consumer's pipeline capacity.
+     */
+    @Bean
+    public SimpleAsyncTaskExecutor activityLogEnrichExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("activity-enrich-");
+        executor.setVirtualThreads(true);
+        return executor;
+    }
 }
@@ -1,5 +1,7 @@
 package com.ginkgooai.core.workspace.config.cache;
 
+import com.ginkgooai.core.workspace.config.properties.ActivityLogSearchProperties;
+import com.ginkgooai.core.workspace.config.properties.UserInfoCacheProperties;
 import lombok.RequiredArgsConstructor;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
@@ -18,13 +20,22 @@ import java.time.Duration;
 @EnableCaching
 @RequiredArgsConstructor
 public class CacheConfig {
+    public static final String USER_INFO_CACHE = "userInfo";
+    public static final String ACTIVITY_LOG_COUNT_CACHE = "activityLogCount";
+
     private final RedisConnectionFactory connectionFactory;
+    private final UserInfoCacheProperties userInfoCacheProperties;
+    private final ActivityLogSearchProperties activityLogSearchProperties;
 
     @Bean
     public CacheManager cacheManager() {
         RedisCacheManager.RedisCacheManagerBuilder builder = RedisCacheManager
             .builder(connectionFactory)
-            .cacheDefaults(defaultConfig());
+            .cacheDefaults(defaultConfig())
+            .withCacheConfiguration(USER_INFO_CACHE,
+                defaultConfig().entryTtl(Duration.ofMillis(userInfoCacheProperties.getExpireAfterWrite())))
+            .withCacheConfiguration(ACTIVITY_LOG_COUNT_CACHE,
+                defaultConfig().entryTtl(Duration.ofMillis(activityLogSearchProperties.getCountCacheTtl())));
             
         return builder.build();
     }
@@ -0,0 +1,18 @@
+package com.ginkgooai.core.workspace.config.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Lets the read-only transactions of the annotated method read from a replica
+ * Only for reads that tolerate data up to datasource.replica.max-lag old. Everything else, including read-only
+ * repository calls made outside such a method, stays on the primary.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ReadFromReplica {
+}
@@ -0,0 +1,97 @@
+package com.ginkgooai.core.workspace.config.datasource;
+
+import com.ginkgooai.core.workspace.config.properties.ReplicaDataSourceProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends the read-only transactions of {@link ReadFromReplica} methods to read replicas, everything else to the primary
+ * The application data source is a {@link LazyConnectionDataSourceProxy} that only fetches a physical
+ * connection once the transaction's read-only flag is known, and then takes it from the
+ * {@link ReplicaRoutingDataSource} for read-only work and from the primary pool otherwise. The routing data source
+ * itself hands out the primary unless the connection is requested inside a {@link ReadFromReplica} method, so
+ * read-only repository calls elsewhere never see replication lag.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "datasource.replica", name = "enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaReadAspect replicaReadAspect() {
+        return new ReplicaReadAspect();
+    }
+
+    /**
+     * Dedicated thread for the replica health check, so a slow lag query neither delays nor is delayed by
+     * the jobs of the shared task scheduler
+     */
+    @Bean
+    public ThreadPoolTaskScheduler replicaHealthCheckScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("replica-health-");
+        scheduler.initialize();
+        return scheduler;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             DataSourceProperties dataSourceProperties,
+                                                             ReplicaDataSourceProperties properties,
+                                                             ThreadPoolTaskScheduler replicaHealthCheckScheduler) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        List<ReplicaDataSourceProperties.Replica> configured = properties.getReplicas();
+        for (int i = 0; i < configured.size(); i++) {
+            ReplicaDataSourceProperties.Replica replica = configured.get(i);
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("replica-" + i);
+            dataSource.setDriverClassName(dataSourceProperties.determineDriverClassName());
+            dataSource.setJdbcUrl(replica.getUrl());
+            dataSource.setUsername(StringUtils.hasText(replica.getUsername()) ? replica.getUsername()
+                    : dataSourceProperties.determineUsername());
+            dataSource.setPassword(StringUtils.hasText(replica.getPassword()) ? replica.getPassword()
+                    : dataSourceProperties.determinePassword());
+            dataSource.setMaximumPoolSize(properties.getMaximumPoolSize());
+            dataSource.setReadOnly(true);
+            replicas.put(dataSource.getPoolName(), dataSource);
+        }
+
+        ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(primaryDataSource, replicas,
+                properties.getMaxLag());
+        replicaHealthCheckScheduler.scheduleWithFixedDelay(routingDataSource::checkReplicas,
+                Duration.ofMillis(properties.getHealthCheckInterval()));
+        return routingDataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaRoutingDataSource replicaRoutingDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaRoutingDataSource);
+        return dataSource;
+    }
+}
@@ -0,0 +1,29 @@
+package com.ginkgooai.core.workspace.config.datasource;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+/**
+ * Opens the replica read scope of {@link ReadFromReplica} methods
+ * Ordered ahead of the transaction interceptor, so the scope is already open when the transaction starts.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ReplicaReadAspect {
+
+    @Around("@annotation(com.ginkgooai.core.workspace.config.datasource.ReadFromReplica)")
+    public Object readFromReplica(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (ReplicaRoutingDataSource.isReplicaReadAllowed()) {
+            return joinPoint.proceed();
+        }
+        ReplicaRoutingDataSource.setReplicaReadAllowed(true);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ReplicaRoutingDataSource.setReplicaReadAllowed(false);
+        }
+    }
+}
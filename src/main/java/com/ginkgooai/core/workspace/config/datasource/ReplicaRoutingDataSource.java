@@ -0,0 +1,122 @@
+package com.ginkgooai.core.workspace.config.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Spreads read-only connections over the healthy replicas, round robin
+ * Only connections requested inside a {@link ReadFromReplica} method go to a replica, all others come from the
+ * primary. A replica is healthy while it answers the periodic check and lags the primary by at most maxLag
+ * milliseconds. When no replica is healthy, connections come from the primary.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    static final String PRIMARY = "primary";
+
+    /**
+     * Replay lag in milliseconds, 0 when the replica has replayed everything it received
+     */
+    private static final String LAG_SQL = """
+            SELECT CASE
+                       WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                       ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0)
+                   END
+            """;
+
+    private static final ThreadLocal<Boolean> REPLICA_READ = new ThreadLocal<>();
+
+    private final Map<String, JdbcTemplate> replicas = new LinkedHashMap<>();
+
+    private final long maxLag;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    private volatile List<String> healthy = List.of();
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, long maxLag) {
+        this.maxLag = maxLag;
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        replicas.forEach((name, dataSource) -> {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            jdbcTemplate.setQueryTimeout(2);
+            this.replicas.put(name, jdbcTemplate);
+        });
+    }
+
+    /**
+     * Whether the current thread is inside a {@link ReadFromReplica} method
+     */
+    static boolean isReplicaReadAllowed() {
+        return Boolean.TRUE.equals(REPLICA_READ.get());
+    }
+
+    static void setReplicaReadAllowed(boolean allowed) {
+        if (allowed) {
+            REPLICA_READ.set(Boolean.TRUE);
+        } else {
+            REPLICA_READ.remove();
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        List<String> candidates = healthy;
+        if (candidates.isEmpty() || !isReplicaReadAllowed()) {
+            return PRIMARY;
+        }
+        return candidates.get(Math.floorMod(next.getAndIncrement(), candidates.size()));
+    }
+
+    /**
+     * Re-evaluate which replicas may serve reads
+     */
+    public void checkReplicas() {
+        List<String> nowHealthy = replicas.entrySet().stream()
+                .filter(replica -> isHealthy(replica.getKey(), replica.getValue()))
+                .map(Map.Entry::getKey)
+                .toList();
+        if (!nowHealthy.equals(healthy)) {
+            log.info("Read replicas in use: {}", nowHealthy.isEmpty() ? "none, reading from primary" : nowHealthy);
+        }
+        healthy = nowHealthy;
+    }
+
+    /**
+     * Close the replica pools, the primary pool is a bean of its own
+     */
+    @Override
+    public void destroy() throws Exception {
+        for (JdbcTemplate replica : replicas.values()) {
+            if (replica.getDataSource() instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private boolean isHealthy(String name, JdbcTemplate replica) {
+        try {
+            Double lag = replica.queryForObject(LAG_SQL, Double.class);
+            if (lag != null && lag > maxLag) {
+                log.debug("Read replica {} lags {} ms behind the primary", name, lag.longValue());
+                return false;
+            }
+            return true;
+        } catch (Exception e) {
+            log.debug("Read replica {} failed its health check: {}", name, e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.ginkgooai.core.workspace.config.mq;
+
+import org.redisson.client.codec.Codec;
+import org.redisson.client.protocol.Decoder;
+import org.redisson.client.protocol.Encoder;
+
+/**
+ * Wraps a codec so that values it cannot decode come back as {@link Undecodable} holding their raw bytes,
+ * instead of failing the whole read they are part of. Keys and encoding are left to the wrapped codec.
+ */
+class LenientCodec implements Codec {
+
+    private final Codec delegate;
+
+    private final Decoder<Object> valueDecoder;
+
+    private final Decoder<Object> mapValueDecoder;
+
+    LenientCodec(Codec delegate) {
+        this.delegate = delegate;
+        this.valueDecoder = lenient(delegate.getValueDecoder());
+        this.mapValueDecoder = lenient(delegate.getMapValueDecoder());
+    }
+
+    private static Decoder<Object> lenient(Decoder<Object> decoder) {
+        return (buf, state) -> {
+            int start = buf.readerIndex();
+            try {
+                return decoder.decode(buf, state);
+            } catch (Exception e) {
+                buf.readerIndex(start);
+                byte[] payload = new byte[buf.readableBytes()];
+                buf.readBytes(payload);
+                return new Undecodable(payload, e);
+            }
+        };
+    }
+
+    @Override
+    public Decoder<Object> getMapValueDecoder() {
+        return mapValueDecoder;
+    }
+
+    @Override
+    public Encoder getMapValueEncoder() {
+        return delegate.getMapValueEncoder();
+    }
+
+    @Override
+    public Decoder<Object> getMapKeyDecoder() {
+        return delegate.getMapKeyDecoder();
+    }
+
+    @Override
+    public Encoder getMapKeyEncoder() {
+        return delegate.getMapKeyEncoder();
+    }
+
+    @Override
+    public Decoder<Object> getValueDecoder() {
+        return valueDecoder;
+    }
+
+    @Override
+    public Encoder getValueEncoder() {
+        return delegate.getValueEncoder();
+    }
+
+    @Override
+    public ClassLoader getClassLoader() {
+        return delegate.getClassLoader();
+    }
+
+    /**
+     * Raw bytes of a value the wrapped codec failed to decode
+     */
+    record Undecodable(byte[] payload, Exception cause) {
+    }
+}
@@ -0,0 +1,385 @@
+package com.ginkgooai.core.workspace.config.mq;
+
+import com.ginkgooai.core.common.queue.QueueMessage;
+import com.ginkgooai.core.workspace.config.properties.QueueProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.AutoClaimResult;
+import org.redisson.api.BatchOptions;
+import org.redisson.api.PendingEntry;
+import org.redisson.api.PendingResult;
+import org.redisson.api.RBatch;
+import org.redisson.api.RStream;
+import org.redisson.api.RStreamAsync;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.StreamGroup;
+import org.redisson.api.StreamMessageId;
+import org.redisson.api.listener.MessageListener;
+import org.redisson.api.stream.StreamAddArgs;
+import org.redisson.api.stream.StreamCreateGroupArgs;
+import org.redisson.api.stream.StreamReadGroupArgs;
+import org.redisson.client.RedisException;
+import org.redisson.client.codec.ByteArrayCodec;
+import org.redisson.client.codec.Codec;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ObjectUtils;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Redis Streams backed queue.
+ * Every instance joins one consumer group per stream, so replicas split the load,
+ * unacknowledged entries are tracked in the group's pending entries list and
+ * entries idle for longer than the visibility timeout are claimed by the next poller.
+ * Entries are deleted once acknowledged or dead-lettered, never trimmed by length, so an entry
+ * the group has not processed yet is never lost.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "mq", name = "backend", havingValue = "stream")
+public class RedisStreamMQ implements ReliableQueue {
+
+    private static final String PAYLOAD = "payload";
+
+    private static final BatchOptions ATOMIC = BatchOptions.defaults()
+            .executionMode(BatchOptions.ExecutionMode.IN_MEMORY_ATOMIC);
+
+    private static final Comparator<StreamMessageId> ID_ORDER = Comparator.comparingLong(StreamMessageId::getId0)
+            .thenComparingLong(StreamMessageId::getId1);
+
+    private final RedissonClient redissonClient;
+    private final QueueProperties queueProperties;
+
+    /**
+     * Codec of stream entries, see RedissonConfig#queueCodec
+     */
+    private final Codec queueCodec;
+
+    private final Set<String> initializedStreams = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Stream entry id of every message delivered to this instance, keyed by queue and message id
+     */
+    private final Map<String, StreamMessageId> receipts = new ConcurrentHashMap<>();
+
+    private final Map<String, AtomicLong> lastClaims = new ConcurrentHashMap<>();
+
+    private volatile String consumerName;
+
+    @Override
+    public <T extends QueueMessage> void send(String queueName, T message) {
+        message.setMsgId(UUID.randomUUID().toString());
+        message.setTimestamp(System.currentTimeMillis());
+        RStream<String, Object> stream = redissonClient.getStream(queueName, queueCodec);
+        stream.add(addArgs(message));
+    }
+
+    @Override
+    public <T extends QueueMessage> void sendBatch(String queueName, List<T> messages) {
+        sendBatchAsync(queueName, messages).join();
+    }
+
+    @Override
+    public <T extends QueueMessage> CompletableFuture<Void> sendBatchAsync(String queueName, List<T> messages) {
+        if (ObjectUtils.isEmpty(messages)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        long now = System.currentTimeMillis();
+        RBatch batch = redissonClient.createBatch();
+        RStreamAsync<String, Object> stream = batch.getStream(queueName, queueCodec);
+        for (T message : messages) {
+            message.setMsgId(UUID.randomUUID().toString());
+            message.setTimestamp(now);
+            stream.addAsync(addArgs(message));
+        }
+        return batch.executeAsync().toCompletableFuture().thenApply(result -> null);
+    }
+
+    @Override
+    public void subscribe(String queueName, MessageListener listener) {
+    }
+
+    @Override
+    public void shutdown() {
+        redissonClient.shutdown();
+    }
+
+    @Override
+    public <T extends QueueMessage> List<T> getMessages(String queueName, int batchSize, Class<T> clazz) {
+        return receive(queueName, batchSize, clazz);
+    }
+
+    @Override
+    public <T extends QueueMessage> List<T> receive(String queueName, int batchSize, Class<T> clazz) {
+        return receive(queueName, batchSize, clazz, Duration.ZERO);
+    }
+
+    @Override
+    public <T extends QueueMessage> List<T> receive(String queueName, int batchSize, Class<T> clazz, Duration timeout) {
+        RStream<String, Object> stream = stream(queueName);
+
+        Map<StreamMessageId, Map<String, Object>> entries = new LinkedHashMap<>(claimStuckEntries(queueName, stream, batchSize));
+        if (entries.size() < batchSize) {
+            StreamReadGroupArgs args = StreamReadGroupArgs.neverDelivered().count(batchSize - entries.size());
+            // Never block when claimed entries are already waiting; BLOCK 0 would wait forever
+            if (entries.isEmpty() && !timeout.isZero() && !timeout.isNegative()) {
+                args = args.timeout(timeout);
+            }
+            Map<StreamMessageId, Map<String, Object>> fresh = stream.readGroup(groupName(), consumerName(), args);
+            if (fresh != null) {
+                entries.putAll(fresh);
+            }
+        }
+        if (entries.isEmpty()) {
+            return List.of();
+        }
+
+        List<T> messages = new ArrayList<>(entries.size());
+        Map<StreamMessageId, Object> undecodable = new LinkedHashMap<>();
+        entries.forEach((id, fields) -> {
+            Object payload = fields.get(PAYLOAD);
+            if (!clazz.isInstance(payload)) {
+                log.error("Unexpected entry {} on stream {}, moving it to dead-letter queue", id, queueName,
+                        payload instanceof LenientCodec.Undecodable failed ? failed.cause() : null);
+                undecodable.put(id, payload != null ? payload : fields);
+                return;
+            }
+            T message = clazz.cast(payload);
+            if (ObjectUtils.isEmpty(message.getMsgId())) {
+                message.setMsgId(id.toString());
+            }
+            receipts.put(receiptKey(queueName, message.getMsgId()), id);
+            messages.add(message);
+        });
+        deadLetterEntries(queueName, undecodable);
+        return messages;
+    }
+
+    /**
+     * Entries not yet delivered to the group, as reported by XINFO GROUPS
+     */
+    @Override
+    public long depth(String queueName) {
+        return stream(queueName).listGroups().stream()
+                .filter(group -> group.getName().equals(groupName()))
+                .mapToLong(StreamGroup::getLag)
+                .findFirst()
+                .orElse(0);
+    }
+
+    @Override
+    public long inFlight(String queueName) {
+        return stream(queueName).getPendingInfo(groupName()).getTotal();
+    }
+
+    @Override
+    public void ack(String queueName, Collection<? extends QueueMessage> messages) {
+        StreamMessageId[] ids = takeReceipts(queueName, messages);
+        if (ids.length > 0) {
+            RBatch batch = redissonClient.createBatch(ATOMIC);
+            acknowledge(batch, queueName, ids);
+            batch.execute();
+        }
+    }
+
+    /**
+     * Streams have no way to hand a pending entry back to the group; released entries stay pending
+     * and are claimed by another consumer once they have been idle for the visibility timeout.
+     */
+    @Override
+    public void release(String queueName, Collection<? extends QueueMessage> messages) {
+        takeReceipts(queueName, messages);
+    }
+
+    /**
+     * The delivery count of a pending entry cannot be reset, so the message is appended again as a fresh entry,
+     * keeping its message id, and the delivered entry is acknowledged in the same transaction
+     */
+    @Override
+    public void retry(String queueName, Collection<? extends QueueMessage> messages) {
+        if (ObjectUtils.isEmpty(messages)) {
+            return;
+        }
+        RBatch batch = redissonClient.createBatch(ATOMIC);
+        RStreamAsync<String, Object> async = batch.getStream(queueName, queueCodec);
+        List<StreamMessageId> retried = new ArrayList<>(messages.size());
+        for (QueueMessage message : messages) {
+            StreamMessageId id = receipts.remove(receiptKey(queueName, message.getMsgId()));
+            if (id != null) {
+                async.addAsync(addArgs(message));
+                retried.add(id);
+            }
+        }
+        if (retried.isEmpty()) {
+            return;
+        }
+        acknowledge(batch, queueName, retried.toArray(StreamMessageId[]::new));
+        batch.execute();
+        log.debug("Re-appended {} entries to stream {}", retried.size(), queueName);
+    }
+
+    @Override
+    public void deadLetter(String queueName, Collection<? extends QueueMessage> messages) {
+        if (ObjectUtils.isEmpty(messages)) {
+            return;
+        }
+        redissonClient.getQueue(deadLetterKey(queueName), queueCodec).addAll(messages);
+        ack(queueName, messages);
+    }
+
+    /**
+     * Number of pending (delivered but unacknowledged) entries per consumer of the group
+     */
+    public Map<String, Long> getPendingByConsumer(String queueName) {
+        PendingResult pending = stream(queueName).getPendingInfo(groupName());
+        return pending.getConsumerNames();
+    }
+
+    /**
+     * Claim entries another consumer (or a previous run of this one) received but never acknowledged.
+     * Runs at most twice per visibility timeout; entries delivered more than max-attempts times are
+     * dead-lettered instead of being handed out again.
+     */
+    private Map<StreamMessageId, Map<String, Object>> claimStuckEntries(String queueName,
+            RStream<String, Object> stream, int batchSize) {
+        long now = System.currentTimeMillis();
+        long visibilityTimeout = queueProperties.getVisibilityTimeout();
+        AtomicLong lastClaim = lastClaims.computeIfAbsent(queueName, key -> new AtomicLong());
+        long previous = lastClaim.get();
+        if (now - previous < visibilityTimeout / 2 || !lastClaim.compareAndSet(previous, now)) {
+            return Map.of();
+        }
+
+        AutoClaimResult<String, Object> claimed = stream.autoClaim(groupName(), consumerName(), visibilityTimeout,
+                TimeUnit.MILLISECONDS, StreamMessageId.MIN, batchSize);
+        Map<StreamMessageId, Map<String, Object>> entries = new LinkedHashMap<>(claimed.getMessages());
+        if (entries.isEmpty()) {
+            return entries;
+        }
+
+        List<StreamMessageId> ids = entries.keySet().stream().sorted(ID_ORDER).toList();
+        Map<StreamMessageId, Long> deliveries = stream.listPending(groupName(), ids.get(0), ids.get(ids.size() - 1),
+                        Math.max(batchSize, ids.size()) * 2)
+                .stream()
+                .collect(Collectors.toMap(PendingEntry::getId, PendingEntry::getLastTimeDelivered));
+
+        List<StreamMessageId> exhausted = ids.stream()
+                .filter(id -> deliveries.getOrDefault(id, 0L) > queueProperties.getMaxAttempts())
+                .toList();
+        if (!exhausted.isEmpty()) {
+            log.warn("{} entries on stream {} exceeded {} attempts, moving them to dead-letter queue",
+                    exhausted.size(), queueName, queueProperties.getMaxAttempts());
+            Map<StreamMessageId, Object> payloads = new LinkedHashMap<>();
+            exhausted.forEach(id -> {
+                Map<String, Object> fields = entries.remove(id);
+                payloads.put(id, fields.get(PAYLOAD) != null ? fields.get(PAYLOAD) : fields);
+            });
+            deadLetterEntries(queueName, payloads);
+        }
+        log.debug("Claimed {} stuck entries on stream {}", entries.size(), queueName);
+        return entries;
+    }
+
+    /**
+     * Move entries to the dead-letter queue and delete them from the stream in one transaction.
+     * Payloads the codec could not decode are kept as their raw bytes.
+     */
+    private void deadLetterEntries(String queueName, Map<StreamMessageId, Object> payloads) {
+        if (payloads.isEmpty()) {
+            return;
+        }
+        RBatch batch = redissonClient.createBatch(ATOMIC);
+        payloads.values().forEach(payload -> {
+            if (payload instanceof LenientCodec.Undecodable undecodable) {
+                batch.getQueue(deadLetterKey(queueName), ByteArrayCodec.INSTANCE).addAsync(undecodable.payload());
+            } else {
+                batch.getQueue(deadLetterKey(queueName), queueCodec).addAsync(payload);
+            }
+        });
+        acknowledge(batch, queueName, payloads.keySet().toArray(StreamMessageId[]::new));
+        batch.execute();
+    }
+
+    /**
+     * XACK followed by XDEL: with a single consumer group an acknowledged entry is never read again
+     */
+    private void acknowledge(RBatch batch, String queueName, StreamMessageId[] ids) {
+        RStreamAsync<String, Object> stream = batch.getStream(queueName, queueCodec);
+        stream.ackAsync(groupName(), ids);
+        stream.removeAsync(ids);
+    }
+
+    private static StreamAddArgs<String, Object> addArgs(QueueMessage message) {
+        return StreamAddArgs.entry(PAYLOAD, message);
+    }
+
+    private StreamMessageId[] takeReceipts(String queueName, Collection<? extends QueueMessage> messages) {
+        if (ObjectUtils.isEmpty(messages)) {
+            return new StreamMessageId[0];
+        }
+        return messages.stream()
+                .map(message -> receipts.remove(receiptKey(queueName, message.getMsgId())))
+                .filter(Objects::nonNull)
+                .toArray(StreamMessageId[]::new);
+    }
+
+    private RStream<String, Object> stream(String queueName) {
+        RStream<String, Object> stream = redissonClient.getStream(queueName, new LenientCodec(queueCodec));
+        if (initializedStreams.add(queueName)) {
+            try {
+                stream.createGroup(StreamCreateGroupArgs.name(groupName()).id(StreamMessageId.ALL).makeStream());
+            } catch (RedisException e) {
+                if (!String.valueOf(e.getMessage()).contains("BUSYGROUP")) {
+                    initializedStreams.remove(queueName);
+                    throw e;
+                }
+            }
+        }
+        return stream;
+    }
+
+    private String groupName() {
+        return queueProperties.getStream().getConsumerGroup();
+    }
+
+    private String consumerName() {
+        if (consumerName == null) {
+            String configured = queueProperties.getStream().getConsumerName();
+            consumerName = ObjectUtils.isEmpty(configured) ? defaultConsumerName() : configured;
+        }
+        return consumerName;
+    }
+
+    private static String defaultConsumerName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return UUID.randomUUID().toString();
+        }
+    }
+
+    private static String receiptKey(String queueName, String msgId) {
+        return queueName + ":" + msgId;
+    }
+
+    private String deadLetterKey(String queueName) {
+        return queueName + queueProperties.getDeadLetterSuffix();
+    }
+}
@@ -1,30 +1,129 @@
 package com.ginkgooai.core.workspace.config.mq;
 
-import com.ginkgooai.core.common.queue.QueueInterface;
 import com.ginkgooai.core.common.queue.QueueMessage;
+import com.ginkgooai.core.workspace.config.properties.QueueProperties;
+import io.netty.buffer.Unpooled;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.redisson.api.RBatch;
+import org.redisson.api.RBlockingDeque;
+import org.redisson.api.RBlockingQueue;
 import org.redisson.api.RQueue;
+import org.redisson.api.RQueueAsync;
+import org.redisson.api.RScript;
 import org.redisson.api.RedissonClient;
 import org.redisson.api.listener.MessageListener;
+import org.redisson.api.queue.DequeMoveArgs;
+import org.redisson.client.codec.ByteArrayCodec;
+import org.redisson.client.codec.Codec;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
+import org.springframework.util.ObjectUtils;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
+@Slf4j
 @Component
 @RequiredArgsConstructor
-public class RedissonMQ implements QueueInterface {
+@ConditionalOnProperty(prefix = "mq", name = "backend", havingValue = "list", matchIfMissing = true)
+public class RedissonMQ implements ReliableQueue {
+
+    /**
+     * Returns expired in-flight messages to the head of the queue, then moves up to
+     * ARGV[3] messages from the queue into the in-flight set with deadline ARGV[2].
+     */
+    private static final String RECEIVE_SCRIPT = """
+            local expired = redis.call('zrangebyscore', KEYS[2], '-inf', ARGV[1], 'LIMIT', 0, ARGV[3])
+            for i = #expired, 1, -1 do
+                redis.call('lpush', KEYS[1], expired[i])
+            end
+            if #expired > 0 then
+                redis.call('zrem', KEYS[2], unpack(expired))
+            end
+            local items = redis.call('lrange', KEYS[1], 0, tonumber(ARGV[3]) - 1)
+            if #items > 0 then
+                redis.call('ltrim', KEYS[1], #items, -1)
+                for i = 1, #items do
+                    redis.call('zadd', KEYS[2], ARGV[2], items[i])
+                end
+            end
+            return items
+            """;
+
+    /**
+     * Pushes every ARGV member still in the in-flight set back to the head of the queue, keeping their order.
+     * Members already acknowledged or redelivered elsewhere are left alone.
+     */
+    private static final String RELEASE_SCRIPT = """
+            local released = 0
+            for i = #ARGV, 1, -1 do
+                if redis.call('zrem', KEYS[2], ARGV[i]) == 1 then
+                    redis.call('lpush', KEYS[1], ARGV[i])
+                    released = released + 1
+                end
+            end
+            return released
+            """;
 
     private final RedissonClient redissonClient;
+    private final QueueProperties queueProperties;
+
+    /**
+     * Codec of queued messages, see RedissonConfig#queueCodec
+     */
+    private final Codec queueCodec;
+
+    /**
+     * Raw payload of every in-flight message received by this instance, keyed by queue and message id.
+     * Needed to remove the exact member from the in-flight set on ack. Evicted once the visibility timeout
+     * has passed, when the message is redelivered instead and can no longer be settled by this delivery.
+     */
+    private final Map<String, Receipt> receipts = new ConcurrentHashMap<>();
+
+    private record Receipt(byte[] payload, long deadline) {
+    }
 
     @Override
     public <T extends QueueMessage> void send(String queueName, T message) {
-        RQueue<T> queue = redissonClient.getQueue(queueName);
+        RQueue<T> queue = redissonClient.getQueue(queueName, queueCodec);
         message.setMsgId(UUID.randomUUID().toString());
         message.setTimestamp(System.currentTimeMillis());
         queue.offer(message);
     }
 
+    @Override
+    public <T extends QueueMessage> void sendBatch(String queueName, List<T> messages) {
+        sendBatchAsync(queueName, messages).join();
+    }
+
+    @Override
+    public <T extends QueueMessage> CompletableFuture<Void> sendBatchAsync(String queueName, List<T> messages) {
+        if (ObjectUtils.isEmpty(messages)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        long now = System.currentTimeMillis();
+        RBatch batch = redissonClient.createBatch();
+        RQueueAsync<T> queue = batch.getQueue(queueName, queueCodec);
+        for (T message : messages) {
+            message.setMsgId(UUID.randomUUID().toString());
+            message.setTimestamp(now);
+            queue.offerAsync(message);
+        }
+        return batch.executeAsync().toCompletableFuture().thenApply(result -> null);
+    }
+
     @Override
     public void subscribe(String queueName, MessageListener listener) {
     }
@@ -36,8 +135,246 @@ public class RedissonMQ implements QueueInterface {
 
     @Override
     public <T extends QueueMessage> List<T> getMessages(String queueName, int batchSize, Class<T> clazz) {
-        RQueue<T> queue = redissonClient.getQueue(queueName);
+        RQueue<T> queue = redissonClient.getQueue(queueName, queueCodec);
         return queue.poll(batchSize);
     }
 
+    @Override
+    public <T extends QueueMessage> List<T> receive(String queueName, int batchSize, Class<T> clazz) {
+        if (!queueProperties.isReliable()) {
+            return getMessages(queueName, batchSize, clazz);
+        }
+
+        long now = System.currentTimeMillis();
+        long deadline = now + queueProperties.getVisibilityTimeout();
+        evictExpiredReceipts(now);
+        List<byte[]> payloads = redissonClient.getScript(ByteArrayCodec.INSTANCE).eval(RScript.Mode.READ_WRITE,
+                RECEIVE_SCRIPT, RScript.ReturnType.MULTI, List.of(queueName, inflightKey(queueName)),
+                toBytes(now), toBytes(deadline), toBytes(batchSize));
+        if (ObjectUtils.isEmpty(payloads)) {
+            return List.of();
+        }
+
+        List<T> messages = new ArrayList<>(payloads.size());
+        List<byte[]> undecodable = new ArrayList<>();
+        for (byte[] payload : payloads) {
+            try {
+                T message = clazz.cast(decode(payload));
+                if (ObjectUtils.isEmpty(message.getMsgId())) {
+                    message.setMsgId(DigestUtils.md5Hex(payload));
+                }
+                receipts.put(receiptKey(queueName, message.getMsgId()), new Receipt(payload, deadline));
+                messages.add(message);
+            } catch (Exception e) {
+                log.error("Failed to decode message from queue {}, moving it to dead-letter queue", queueName, e);
+                undecodable.add(payload);
+            }
+        }
+        if (!undecodable.isEmpty()) {
+            deadLetterPayloads(queueName, undecodable, List.of());
+        }
+
+        return withinAttemptLimit(queueName, messages);
+    }
+
+    @Override
+    public <T extends QueueMessage> List<T> receive(String queueName, int batchSize, Class<T> clazz, Duration timeout) {
+        try {
+            if (!queueProperties.isReliable()) {
+                RBlockingQueue<T> queue = redissonClient.getBlockingQueue(queueName, queueCodec);
+                T first = queue.poll(timeout.toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    return List.of();
+                }
+                List<T> messages = new ArrayList<>(batchSize);
+                messages.add(first);
+                if (batchSize > 1) {
+                    messages.addAll(queue.poll(batchSize - 1));
+                }
+                return messages;
+            }
+
+            // BLMOVE from the head back to the head: blocks until the list is non-empty without consuming
+            // anything, so the message only leaves the list through the atomic receive script
+            RBlockingDeque<byte[]> deque = redissonClient.getBlockingDeque(queueName, ByteArrayCodec.INSTANCE);
+            deque.move(timeout, DequeMoveArgs.pollFirst().addFirstTo(queueName));
+            // Run the receive script on timeout as well: it requeues expired in-flight messages, which would
+            // otherwise wait for new traffic before a crashed consumer's messages are delivered again
+            return receive(queueName, batchSize, clazz);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return List.of();
+        }
+    }
+
+    @Override
+    public long depth(String queueName) {
+        return redissonClient.getQueue(queueName).size();
+    }
+
+    @Override
+    public long inFlight(String queueName) {
+        return queueProperties.isReliable() ? redissonClient.getScoredSortedSet(inflightKey(queueName)).size() : 0;
+    }
+
+    @Override
+    public void ack(String queueName, Collection<? extends QueueMessage> messages) {
+        if (!queueProperties.isReliable() || ObjectUtils.isEmpty(messages)) {
+            return;
+        }
+        List<byte[]> payloads = new ArrayList<>(messages.size());
+        List<String> msgIds = new ArrayList<>(messages.size());
+        for (QueueMessage message : messages) {
+            Receipt receipt = receipts.remove(receiptKey(queueName, message.getMsgId()));
+            if (receipt != null) {
+                payloads.add(receipt.payload());
+                msgIds.add(message.getMsgId());
+            }
+        }
+        if (payloads.isEmpty()) {
+            return;
+        }
+
+        RBatch batch = redissonClient.createBatch();
+        batch.getScoredSortedSet(inflightKey(queueName), ByteArrayCodec.INSTANCE).removeAllAsync(payloads);
+        batch.getMap(attemptsKey(queueName), StringCodec.INSTANCE).fastRemoveAsync(msgIds.toArray());
+        batch.execute();
+    }
+
+    @Override
+    public void release(String queueName, Collection<? extends QueueMessage> messages) {
+        if (ObjectUtils.isEmpty(messages)) {
+            return;
+        }
+        if (!queueProperties.isReliable()) {
+            // Plain mode already removed the messages from the list, push them back in their original order
+            List<QueueMessage> reversed = new ArrayList<>(messages);
+            Collections.reverse(reversed);
+            RBatch batch = redissonClient.createBatch();
+            reversed.forEach(message -> batch.getDeque(queueName, queueCodec).addFirstAsync(message));
+            batch.execute();
+            return;
+        }
+        List<Object> payloads = new ArrayList<>(messages.size());
+        for (QueueMessage message : messages) {
+            Receipt receipt = receipts.remove(receiptKey(queueName, message.getMsgId()));
+            if (receipt != null) {
+                payloads.add(receipt.payload());
+            }
+        }
+        if (payloads.isEmpty()) {
+            return;
+        }
+        redissonClient.getScript(ByteArrayCodec.INSTANCE).eval(RScript.Mode.READ_WRITE, RELEASE_SCRIPT,
+                RScript.ReturnType.INTEGER, List.of(queueName, inflightKey(queueName)), payloads.toArray());
+    }
+
+    @Override
+    public void retry(String queueName, Collection<? extends QueueMessage> messages) {
+        if (queueProperties.isReliable() && !ObjectUtils.isEmpty(messages)) {
+            RBatch batch = redissonClient.createBatch();
+            messages.stream()
+                    .filter(message -> receipts.containsKey(receiptKey(queueName, message.getMsgId())))
+                    .forEach(message -> batch.getMap(attemptsKey(queueName), StringCodec.INSTANCE)
+                            .addAndGetAsync(message.getMsgId(), -1));
+            batch.execute();
+        }
+        release(queueName, messages);
+    }
+
+    @Override
+    public void deadLetter(String queueName, Collection<? extends QueueMessage> messages) {
+        if (ObjectUtils.isEmpty(messages)) {
+            return;
+        }
+        if (!queueProperties.isReliable()) {
+            redissonClient.getQueue(deadLetterKey(queueName), queueCodec).addAll(messages);
+            return;
+        }
+        List<byte[]> payloads = new ArrayList<>(messages.size());
+        List<String> msgIds = new ArrayList<>(messages.size());
+        for (QueueMessage message : messages) {
+            Receipt receipt = receipts.remove(receiptKey(queueName, message.getMsgId()));
+            if (receipt != null) {
+                payloads.add(receipt.payload());
+                msgIds.add(message.getMsgId());
+            }
+        }
+        deadLetterPayloads(queueName, payloads, msgIds);
+    }
+
+    /**
+     * Forget messages whose visibility timeout has passed without them being settled, e.g. because the
+     * consumer gave up on them. They are back in the queue or about to be, and a later delivery brings a new receipt.
+     */
+    private void evictExpiredReceipts(long now) {
+        receipts.values().removeIf(receipt -> receipt.deadline() <= now);
+    }
+
+    /**
+     * Count this delivery for every message and divert those exceeding the attempt limit
+     */
+    private <T extends QueueMessage> List<T> withinAttemptLimit(String queueName, List<T> messages) {
+        if (messages.isEmpty()) {
+            return messages;
+        }
+        RBatch batch = redissonClient.createBatch();
+        messages.forEach(message -> batch.getMap(attemptsKey(queueName), StringCodec.INSTANCE)
+                .addAndGetAsync(message.getMsgId(), 1));
+        List<?> attempts = batch.execute().getResponses();
+
+        List<T> deliverable = new ArrayList<>(messages.size());
+        List<T> exhausted = new ArrayList<>();
+        for (int i = 0; i < messages.size(); i++) {
+            if (Long.parseLong(String.valueOf(attempts.get(i))) > queueProperties.getMaxAttempts()) {
+                exhausted.add(messages.get(i));
+            } else {
+                deliverable.add(messages.get(i));
+            }
+        }
+        if (!exhausted.isEmpty()) {
+            log.warn("{} messages on queue {} exceeded {} attempts, moving them to dead-letter queue",
+                    exhausted.size(), queueName, queueProperties.getMaxAttempts());
+            deadLetter(queueName, exhausted);
+        }
+        return deliverable;
+    }
+
+    private void deadLetterPayloads(String queueName, List<byte[]> payloads, List<String> msgIds) {
+        if (payloads.isEmpty()) {
+            return;
+        }
+        RBatch batch = redissonClient.createBatch();
+        batch.getQueue(deadLetterKey(queueName), ByteArrayCodec.INSTANCE).addAllAsync(payloads);
+        batch.getScoredSortedSet(inflightKey(queueName), ByteArrayCodec.INSTANCE).removeAllAsync(payloads);
+        if (!msgIds.isEmpty()) {
+            batch.getMap(attemptsKey(queueName), StringCodec.INSTANCE).fastRemoveAsync(msgIds.toArray());
+        }
+        batch.execute();
+    }
+
+    private Object decode(byte[] payload) throws Exception {
+        return queueCodec.getValueDecoder().decode(Unpooled.wrappedBuffer(payload), null);
+    }
+
+    private static byte[] toBytes(long value) {
+        return String.valueOf(value).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String receiptKey(String queueName, String msgId) {
+        return queueName + ":" + msgId;
+    }
+
+    private static String inflightKey(String queueName) {
+        return queueName + ":inflight";
+    }
+
+    private static String attemptsKey(String queueName) {
+        return queueName + ":attempts";
+    }
+
+    private String deadLetterKey(String queueName) {
+        return queueName + queueProperties.getDeadLetterSuffix();
+    }
+
 }
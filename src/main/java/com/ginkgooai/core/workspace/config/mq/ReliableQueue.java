@@ -0,0 +1,72 @@
+package com.ginkgooai.core.workspace.config.mq;
+
+import com.ginkgooai.core.common.queue.QueueInterface;
+import com.ginkgooai.core.common.queue.QueueMessage;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Queue with at-least-once delivery semantics.
+ * Messages returned by {@link #receive} stay in flight until they are acknowledged,
+ * are redelivered after the visibility timeout and end up in a dead-letter queue
+ * once they exceed the configured number of attempts.
+ */
+public interface ReliableQueue extends QueueInterface {
+
+    /**
+     * Send all messages in a single pipelined round trip, keeping their order
+     */
+    <T extends QueueMessage> void sendBatch(String queueName, List<T> messages);
+
+    /**
+     * Same as {@link #sendBatch} without waiting for Redis to reply.
+     * The returned future completes once every message has been enqueued.
+     */
+    <T extends QueueMessage> CompletableFuture<Void> sendBatchAsync(String queueName, List<T> messages);
+
+    /**
+     * Receive up to batchSize messages and mark them as in flight
+     */
+    <T extends QueueMessage> List<T> receive(String queueName, int batchSize, Class<T> clazz);
+
+    /**
+     * Block up to timeout until at least one message is available, then receive up to
+     * batchSize messages without waiting any further. Returns an empty list on timeout.
+     */
+    <T extends QueueMessage> List<T> receive(String queueName, int batchSize, Class<T> clazz, Duration timeout);
+
+    /**
+     * Number of messages waiting to be received
+     */
+    long depth(String queueName);
+
+    /**
+     * Number of messages received but not yet acknowledged
+     */
+    long inFlight(String queueName);
+
+    /**
+     * Acknowledge messages once they have been durably processed
+     */
+    void ack(String queueName, Collection<? extends QueueMessage> messages);
+
+    /**
+     * Return received but unprocessed messages to the head of the queue right away,
+     * e.g. on shutdown, instead of waiting for their visibility timeout
+     */
+    void release(String queueName, Collection<? extends QueueMessage> messages);
+
+    /**
+     * Return messages whose processing failed for a transient reason, e.g. the database being down,
+     * without counting this delivery against the attempt limit
+     */
+    void retry(String queueName, Collection<? extends QueueMessage> messages);
+
+    /**
+     * Move messages that can never be processed to the dead-letter queue
+     */
+    void deadLetter(String queueName, Collection<? extends QueueMessage> messages);
+}
@@ -0,0 +1,67 @@
+package com.ginkgooai.core.workspace.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "activity.log.consumer")
+@Data
+public class ActivityLogConsumerProperties {
+
+    /**
+     * Maximum number of messages a single worker persists in one transaction
+     */
+    private int batchSize = 100;
+
+    /**
+     * Milliseconds to keep collecting messages into a round after the first one arrived,
+     * trading a little latency for fuller batches under moderate load
+     */
+    private long maxWaitTime = 5;
+
+    /**
+     * Milliseconds a blocking receive waits for the first message before the loop re-checks its state
+     */
+    private long blockTimeout = 1000;
+
+    /**
+     * Milliseconds to back off after the consumer loop failed, e.g. while Redis is unreachable
+     */
+    private long pollingInterval = 1000;
+
+    /**
+     * Upper bound in milliseconds of the back-off after the database failed; starts at the polling
+     * interval and doubles with every consecutive failure
+     */
+    private long maxBackoff = 30000;
+
+    /**
+     * Number of worker threads persisting partitions in parallel
+     */
+    private int poolSize = 4;
+
+    /**
+     * Number of workspace-hash partitions a polled batch is split into.
+     * Messages of the same workspace always land in the same partition and are persisted in order.
+     */
+    private int partitionCount = 16;
+
+    /**
+     * Number of polled rounds that may wait for enrichment or persistence before polling is paused
+     */
+    private int pipelineCapacity = 4;
+
+    /**
+     * Milliseconds to keep persisting in-flight messages on shutdown before the rest is returned to the queue.
+     * Must stay below spring.lifecycle.timeout-per-shutdown-phase.
+     */
+    private long shutdownTimeout = 20000;
+
+    /**
+     * Number of messages pulled from the queue per dispatch round
+     */
+    public int getPollSize() {
+        return batchSize * poolSize;
+    }
+}
@@ -0,0 +1,35 @@
+package com.ginkgooai.core.workspace.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "activity.log.journal")
+@Data
+public class ActivityLogJournalProperties {
+
+    /**
+     * Spill batches that fail to persist to a local journal instead of leaving them in Redis.
+     * Only enable with a directory on a persistent volume, the journal is the only copy of spilled batches.
+     */
+    private boolean enabled = false;
+
+    private String directory = System.getProperty("java.io.tmpdir") + "/activity-log-journal";
+
+    /**
+     * Size in bytes of one memory-mapped journal segment
+     */
+    private int segmentSize = 32 * 1024 * 1024;
+
+    /**
+     * Maximum number of segments on disk, including the one being written; once reached, failed batches are no
+     * longer spilled. Segments moved aside as .bad files are not counted and are left for an operator to inspect.
+     */
+    private int maxSegments = 32;
+
+    /**
+     * Milliseconds between attempts to replay the journal into the database
+     */
+    private long replayInterval = 5000;
+}
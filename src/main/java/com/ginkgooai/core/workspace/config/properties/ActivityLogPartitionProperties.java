@@ -0,0 +1,30 @@
+package com.ginkgooai.core.workspace.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "activity.log.partition")
+@Data
+public class ActivityLogPartitionProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Number of monthly partitions created ahead of the current month
+     */
+    private int premakeMonths = 3;
+
+    /**
+     * Number of past months kept besides the current one, 0 (the default) keeps every partition
+     */
+    private int retentionMonths = 0;
+
+    /**
+     * Drop expired partitions, or only detach them (the default) so they can be archived and dropped by hand
+     */
+    private boolean dropExpired = false;
+
+    private String maintenanceCron = "0 0 3 * * *";
+}
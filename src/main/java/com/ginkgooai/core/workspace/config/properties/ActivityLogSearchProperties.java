@@ -0,0 +1,26 @@
+package com.ginkgooai.core.workspace.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "activity.log.search")
+@Data
+public class ActivityLogSearchProperties {
+
+    /**
+     * Milliseconds an exact search count is reused for the same workspace and filters by CACHED and ESTIMATED searches
+     */
+    private long countCacheTtl = 60 * 1000;
+
+    /**
+     * Rows fetched per round trip from the database cursor of an export
+     */
+    private int exportFetchSize = 1000;
+
+    /**
+     * Milliseconds an export may stream before it is aborted, other async requests keep the server default
+     */
+    private long exportTimeout = 60 * 60 * 1000;
+}
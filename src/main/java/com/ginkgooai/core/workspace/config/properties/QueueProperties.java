@@ -0,0 +1,48 @@
+package com.ginkgooai.core.workspace.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "mq")
+@Data
+public class QueueProperties {
+
+    /**
+     * Queue backend, either "list" (Redis list, {@code RedissonMQ}) or "stream"
+     * (Redis Streams consumer group, {@code RedisStreamMQ}). Producers and consumers must agree.
+     */
+    private String backend = "list";
+
+    /**
+     * When enabled, received messages are kept in an in-flight set until acknowledged
+     * and redelivered once their visibility timeout expires
+     */
+    private boolean reliable = true;
+
+    /**
+     * Milliseconds a received message stays invisible before it is redelivered
+     */
+    private long visibilityTimeout = 60000;
+
+    /**
+     * Deliveries after which a message is moved to the dead-letter queue
+     */
+    private int maxAttempts = 5;
+
+    private String deadLetterSuffix = ":dlq";
+
+    private Stream stream = new Stream();
+
+    @Data
+    public static class Stream {
+
+        private String consumerGroup = "core-workspace";
+
+        /**
+         * Unique name of this instance inside the consumer group, defaults to the host name
+         */
+        private String consumerName;
+    }
+}
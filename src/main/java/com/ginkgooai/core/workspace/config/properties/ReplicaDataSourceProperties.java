@@ -0,0 +1,49 @@
+package com.ginkgooai.core.workspace.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@ConfigurationProperties(prefix = "datasource.replica")
+@Data
+public class ReplicaDataSourceProperties {
+
+    /**
+     * Route read-only transactions to the replicas below
+     */
+    private boolean enabled = false;
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    private int maximumPoolSize = 10;
+
+    /**
+     * Milliseconds a replica may lag behind the primary before reads fall back to other replicas or the primary
+     */
+    private long maxLag = 5000;
+
+    /**
+     * Milliseconds between replica health and lag checks
+     */
+    private long healthCheckInterval = 5000;
+
+    @Data
+    public static class Replica {
+
+        private String url;
+
+        /**
+         * Defaults to spring.datasource.username
+         */
+        private String username;
+
+        /**
+         * Defaults to spring.datasource.password
+         */
+        private String password;
+    }
+}
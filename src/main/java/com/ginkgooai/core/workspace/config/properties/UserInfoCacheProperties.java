@@ -0,0 +1,33 @@
+package com.ginkgooai.core.workspace.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "identity.user-cache")
+@Data
+public class UserInfoCacheProperties {
+
+    /**
+     * Maximum number of users kept in the in-process cache
+     */
+    private long maximumSize = 10000;
+
+    /**
+     * Milliseconds after which a cached user is refreshed in the background on its next read,
+     * the stale entry is served until the refresh completes
+     */
+    private long refreshAfterWrite = 60 * 1000;
+
+    /**
+     * Milliseconds a user is kept in both cache levels, bounds how long stale entries
+     * are served while the identity service is unavailable
+     */
+    private long expireAfterWrite = 60 * 60 * 1000;
+
+    /**
+     * Milliseconds an unknown user id is remembered in the in-process cache
+     */
+    private long negativeTtl = 30 * 1000;
+}
@@ -2,29 +2,45 @@ package com.ginkgooai.core.workspace.controller;
 
 import com.ginkgooai.core.common.enums.ActivityType;
 import com.ginkgooai.core.common.utils.ContextUtils;
+import com.ginkgooai.core.workspace.config.properties.ActivityLogSearchProperties;
 import com.ginkgooai.core.workspace.dto.request.ActivityQueryRequest;
+import com.ginkgooai.core.workspace.dto.request.CountMode;
+import com.ginkgooai.core.workspace.dto.request.ExportFormat;
 import com.ginkgooai.core.workspace.dto.response.ActivityLogResponse;
+import com.ginkgooai.core.workspace.dto.response.ActivityLogSliceResponse;
+import com.ginkgooai.core.workspace.service.ActivityLogExportService;
 import com.ginkgooai.core.workspace.service.ActivityLogService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.authorization.AuthorizationDeniedException;
 import org.springframework.util.ObjectUtils;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Activity log query API
@@ -35,11 +51,18 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class ActivityLogController {
 
+	private static final String EXPORT_TIMEOUT_INTERCEPTOR = ActivityLogController.class.getName() + ".exportTimeout";
+
 	private final ActivityLogService activityLogService;
 
+	private final ActivityLogExportService activityLogExportService;
+
+	private final ActivityLogSearchProperties searchProperties;
+
 	@GetMapping
-	@Operation(summary = "Search activity logs")
-	public Page<ActivityLogResponse> searchActivityLogs(@RequestParam(required = false) String projectId,
+	@Operation(summary = "Search activity logs",
+			description = "Returns a page with totalElements, or only hasNext-style slice fields when countMode is NONE")
+	public Slice<ActivityLogResponse> searchActivityLogs(@RequestParam(required = false) String projectId,
 			@RequestParam(required = false) String applicationId, @RequestParam(required = false) String activityType,
 			@RequestParam(required = false) String createdBy,
 			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
@@ -50,7 +73,13 @@ public class ActivityLogController {
 			@Parameter(description = "Sort direction (ASC/DESC)",
 					example = "DESC") @RequestParam(defaultValue = "DESC") String sortDirection,
 			@Parameter(description = "Sort field (e.g., updatedAt)",
-					example = "updatedAt") @RequestParam(defaultValue = "createdAt") String sortField) {
+					example = "updatedAt") @RequestParam(defaultValue = "createdAt") String sortField,
+			@Parameter(description = "How the total is computed: EXACT counts on every request, CACHED reuses an "
+					+ "exact count of the same filters for a short time (a minute by default), ESTIMATED uses a "
+					+ "cached count or the query planner's estimate, NONE skips the total",
+					example = "EXACT") @RequestParam(defaultValue = "EXACT") CountMode countMode,
+			@Parameter(description = "Whether to return the attachments of every activity log") @RequestParam(
+					defaultValue = "false") boolean includeAttachments) {
 		if (ObjectUtils.isEmpty(ContextUtils.getWorkspaceId())) {
 			throw new AuthorizationDeniedException("No workspace chosen");
 		}
@@ -58,18 +87,101 @@ public class ActivityLogController {
 		Sort sort = Sort.by(Sort.Direction.fromString(sortDirection), sortField);
 		Pageable pageable = PageRequest.of(page, size, sort);
 
-		Page<ActivityLogResponse> pageResult = activityLogService.search(ActivityQueryRequest.builder()
+		Slice<ActivityLogResponse> pageResult = activityLogService.search(ActivityQueryRequest.builder()
 			.projectId(projectId)
 			.applicationId(applicationId)
 			.activityType(activityType)
 			.createdBy(createdBy)
 			.startTime(startTime)
 			.endTime(endTime)
+			.countMode(countMode)
+			.includeAttachments(includeAttachments)
 			.build(), pageable);
 
 		return pageResult;
 	}
 
+	@GetMapping("/cursor")
+	@Operation(summary = "Search activity logs with a cursor",
+			description = "Returns activity logs newest first. Pass the nextCursor of a slice to fetch the following one; "
+					+ "unlike page numbers, the cost of a slice does not grow with its depth.")
+	public ActivityLogSliceResponse searchActivityLogsByCursor(@RequestParam(required = false) String projectId,
+			@RequestParam(required = false) String applicationId, @RequestParam(required = false) String activityType,
+			@RequestParam(required = false) String createdBy,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime,
+			@Parameter(description = "nextCursor of the previous slice, omit for the first slice") @RequestParam(
+					required = false) String cursor,
+			@Parameter(description = "Slice size", example = "10") @RequestParam(defaultValue = "10") int size,
+			@Parameter(description = "Whether to return the attachments of every activity log") @RequestParam(
+					defaultValue = "false") boolean includeAttachments) {
+		if (ObjectUtils.isEmpty(ContextUtils.getWorkspaceId())) {
+			throw new AuthorizationDeniedException("No workspace chosen");
+		}
+
+		return activityLogService.searchByCursor(ActivityQueryRequest.builder()
+			.projectId(projectId)
+			.applicationId(applicationId)
+			.activityType(activityType)
+			.createdBy(createdBy)
+			.startTime(startTime)
+			.endTime(endTime)
+			.includeAttachments(includeAttachments)
+			.build(), cursor, size);
+	}
+
+	@GetMapping("/export")
+	@Operation(summary = "Export activity logs",
+			description = "Streams every matching activity log of the current workspace, oldest first, as NDJSON or CSV")
+	public ResponseEntity<StreamingResponseBody> exportActivityLogs(@RequestParam(required = false) String projectId,
+			@RequestParam(required = false) String applicationId, @RequestParam(required = false) String activityType,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime,
+			@Parameter(description = "File format: NDJSON or CSV",
+					example = "NDJSON") @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+			@Parameter(description = "Whether to gzip the file") @RequestParam(defaultValue = "false") boolean gzip,
+			NativeWebRequest request) {
+		String workspaceId = ContextUtils.getWorkspaceId();
+		if (ObjectUtils.isEmpty(workspaceId)) {
+			throw new AuthorizationDeniedException("No workspace chosen");
+		}
+
+		ActivityQueryRequest filters = ActivityQueryRequest.builder()
+			.projectId(projectId)
+			.applicationId(applicationId)
+			.activityType(activityType)
+			.startTime(startTime)
+			.endTime(endTime)
+			.build();
+
+		StreamingResponseBody body = outputStream -> {
+			if (gzip) {
+				GZIPOutputStream gzipStream = new GZIPOutputStream(outputStream, 64 * 1024);
+				activityLogExportService.export(workspaceId, filters, format, gzipStream);
+				gzipStream.finish();
+			}
+			else {
+				activityLogExportService.export(workspaceId, filters, format, outputStream);
+			}
+		};
+
+		// Exports outlast the default async request timeout, which stays in place for every other request
+		WebAsyncUtils.getAsyncManager(request)
+			.registerCallableInterceptor(EXPORT_TIMEOUT_INTERCEPTOR, new CallableProcessingInterceptor() {
+				@Override
+				public <T> void beforeConcurrentHandling(NativeWebRequest asyncRequest, Callable<T> task) {
+					((AsyncWebRequest) asyncRequest).setTimeout(searchProperties.getExportTimeout());
+				}
+			});
+
+		String filename = "activity-logs-" + workspaceId + "." + format.getExtension() + (gzip ? ".gz" : "");
+		return ResponseEntity.ok()
+			.contentType(MediaType.parseMediaType(gzip ? "application/gzip" : format.getContentType()))
+			.header(HttpHeaders.CONTENT_DISPOSITION,
+					ContentDisposition.attachment().filename(filename).build().toString())
+			.body(body);
+	}
+
 	@GetMapping("/types")
 	@Operation(summary = "Get all activity types")
 	public Map<String, String> getActivityTypes() {
@@ -36,6 +36,12 @@ public class ActivityLog extends BaseAuditableEntity {
 
     private String applicationId;
 
+    /**
+     * Id of the queue message this log was ingested from, unique so redeliveries are ignored
+     */
+    @Column(updatable = false)
+    private String messageId;
+
     @Type(JsonType.class)
     @Column(columnDefinition = "jsonb")
     private Map<String, Object> variables;
@@ -18,6 +18,11 @@ public class ActivityQueryRequest {
     private LocalDateTime startTime;
     private LocalDateTime endTime;
     
+    @Builder.Default
+    private CountMode countMode = CountMode.EXACT;
+
+    private boolean includeAttachments;
+
     @Builder.Default
     private int pageNo = 1;
     
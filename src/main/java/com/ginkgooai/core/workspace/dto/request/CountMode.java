@@ -0,0 +1,28 @@
+package com.ginkgooai.core.workspace.dto.request;
+
+/**
+ * How the total number of matching rows is computed for a paged search
+ */
+public enum CountMode {
+
+    /**
+     * Exact count, computed for every request
+     */
+    EXACT,
+
+    /**
+     * Exact count, reused for the same workspace and filters for up to activity.log.search.count-cache-ttl,
+     * so it may miss the most recent logs
+     */
+    CACHED,
+
+    /**
+     * Cached exact count when available, otherwise the query planner's row estimate
+     */
+    ESTIMATED,
+
+    /**
+     * No total, the response only tells whether a next page exists
+     */
+    NONE
+}
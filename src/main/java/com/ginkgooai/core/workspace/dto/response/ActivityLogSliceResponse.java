@@ -0,0 +1,26 @@
+package com.ginkgooai.core.workspace.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+@Schema(description = "One slice of activity logs fetched with a cursor")
+public class ActivityLogSliceResponse {
+
+    @Schema(description = "Activity logs of this slice, newest first")
+    private List<ActivityLogResponse> content;
+
+    @Schema(description = "Number of activity logs requested", example = "10")
+    private int size;
+
+    @Schema(description = "Whether more activity logs follow this slice", example = "true")
+    private boolean hasNext;
+
+    @Schema(description = "Opaque cursor to pass to fetch the next slice, absent on the last slice",
+            example = "MjAyNS0wNC0xNVQwOTozMDowMHw1NTBlODQwMA")
+    private String nextCursor;
+}
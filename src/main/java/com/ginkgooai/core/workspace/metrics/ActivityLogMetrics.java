@@ -0,0 +1,163 @@
+package com.ginkgooai.core.workspace.metrics;
+
+import com.ginkgooai.core.common.queue.QueueMessage;
+import com.ginkgooai.core.workspace.activityconsumer.ActivityLogJournal;
+import com.ginkgooai.core.workspace.config.mq.ReliableQueue;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Meters of the activity log ingestion pipeline, published through actuator
+ */
+@Slf4j
+@Component
+public class ActivityLogMetrics {
+
+    private final MeterRegistry registry;
+
+    private final Counter consumed;
+    private final Counter persisted;
+    private final Counter duplicates;
+    private final Counter rejected;
+    private final Counter failed;
+    private final Counter spilled;
+
+    private final Timer pollTimer;
+    private final Timer convertTimer;
+    private final Timer persistTimer;
+    private final Timer endToEndLag;
+
+    private final DistributionSummary batchSize;
+
+    public ActivityLogMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.consumed = Counter.builder("activity.log.messages.consumed")
+                .description("Messages received from the activity log queue")
+                .register(registry);
+        this.persisted = Counter.builder("activity.log.messages.persisted")
+                .description("Activity logs written to the database")
+                .register(registry);
+        this.duplicates = Counter.builder("activity.log.messages.duplicate")
+                .description("Redelivered messages skipped because they were already persisted")
+                .register(registry);
+        this.rejected = Counter.builder("activity.log.messages.failed")
+                .description("Messages that could not be ingested")
+                .tag("reason", "rejected")
+                .register(registry);
+        this.failed = Counter.builder("activity.log.messages.failed")
+                .description("Messages that could not be ingested")
+                .tag("reason", "error")
+                .register(registry);
+        this.spilled = Counter.builder("activity.log.messages.spilled")
+                .description("Messages written to the local journal because the database was unavailable")
+                .register(registry);
+        this.pollTimer = Timer.builder("activity.log.poll")
+                .description("Time spent receiving a round of messages, including blocking waits")
+                .register(registry);
+        this.convertTimer = Timer.builder("activity.log.convert")
+                .description("Time spent converting a batch of messages into entities")
+                .register(registry);
+        this.persistTimer = Timer.builder("activity.log.persist")
+                .description("Time spent persisting a batch of activity logs")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.endToEndLag = Timer.builder("activity.log.end.to.end.lag")
+                .description("Time from enqueueing a message to committing its activity log")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofMinutes(10))
+                .register(registry);
+        this.batchSize = DistributionSummary.builder("activity.log.batch.size")
+                .description("Number of messages persisted per batch")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    /**
+     * Register depth and in-flight gauges for a queue; both are read from Redis on every scrape
+     */
+    public void registerQueue(String queueName, ReliableQueue queue) {
+        Gauge.builder("activity.log.queue.depth", queue, safely(q -> q.depth(queueName)))
+                .description("Messages waiting in the queue")
+                .tag("queue", queueName)
+                .register(registry);
+        Gauge.builder("activity.log.queue.inflight", queue, safely(q -> q.inFlight(queueName)))
+                .description("Messages received but not yet acknowledged")
+                .tag("queue", queueName)
+                .register(registry);
+    }
+
+    public void registerJournal(ActivityLogJournal journal) {
+        Gauge.builder("activity.log.journal.batches", journal, ActivityLogJournal::getPendingBatches)
+                .description("Spilled batches waiting to be replayed into the database")
+                .register(registry);
+        Gauge.builder("activity.log.journal.segments", journal, ActivityLogJournal::getSegmentCount)
+                .description("Journal segments on disk")
+                .register(registry);
+    }
+
+    public Timer.Sample startSample() {
+        return Timer.start(registry);
+    }
+
+    public void recordPoll(Timer.Sample sample, int received) {
+        sample.stop(pollTimer);
+        consumed.increment(received);
+    }
+
+    public void recordConvert(Timer.Sample sample) {
+        sample.stop(convertTimer);
+    }
+
+    public void recordPersist(Timer.Sample sample, int batch, int inserted) {
+        sample.stop(persistTimer);
+        batchSize.record(batch);
+        persisted.increment(inserted);
+        duplicates.increment(batch - inserted);
+    }
+
+    public void recordRejected(int count) {
+        rejected.increment(count);
+    }
+
+    public void recordFailed(int count) {
+        failed.increment(count);
+    }
+
+    public void recordSpilled(int count) {
+        spilled.increment(count);
+    }
+
+    /**
+     * Record the end-to-end lag of committed messages based on their enqueue timestamp
+     */
+    public void recordCommitted(Collection<? extends QueueMessage> messages) {
+        long now = System.currentTimeMillis();
+        for (QueueMessage message : messages) {
+            if (message.getTimestamp() > 0) {
+                endToEndLag.record(Duration.ofMillis(Math.max(0, now - message.getTimestamp())));
+            }
+        }
+    }
+
+    private static <T> ToDoubleFunction<T> safely(ToLongFunction<T> reader) {
+        return target -> {
+            try {
+                return reader.applyAsLong(target);
+            } catch (Exception e) {
+                log.debug("Failed to read queue gauge", e);
+                return Double.NaN;
+            }
+        };
+    }
+}
@@ -0,0 +1,128 @@
+package com.ginkgooai.core.workspace.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ginkgooai.core.workspace.domain.ActivityLog;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Bulk write path for activity_log
+ * Inserts a whole batch with a single statement by passing one PostgreSQL array per column
+ * and expanding them with unnest, bypassing entity state tracking and per-row round trips.
+ * Rows are de-duplicated on message_id and created_at, the unique key of the partitioned table,
+ * and counted into activity_log_hourly_count by the same statement.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ActivityLogBulkRepository {
+
+    /**
+     * Inserts the batch and adds the rows actually inserted to their hourly counters,
+     * so counters and rows stay consistent even for redelivered batches.
+     * Counters are upserted in key order to keep concurrent batches from deadlocking.
+     */
+    private static final String INSERT_SQL = """
+            WITH inserted AS (
+                INSERT INTO workspace.activity_log (id, activity_type, description, workspace_id, project_id,
+                                                    application_id, created_by, created_at, updated_at, variables, attachments,
+                                                    message_id)
+                SELECT * FROM unnest(?::varchar[], ?::varchar[], ?::varchar[], ?::varchar[], ?::varchar[],
+                                     ?::varchar[], ?::varchar[], ?::timestamp[], ?::timestamp[], ?::text[]::jsonb[], ?::text[]::jsonb[],
+                                     ?::varchar[])
+                ON CONFLICT (message_id, created_at) DO NOTHING
+                RETURNING workspace_id, created_at, project_id, application_id, activity_type
+            ), counted AS (
+                INSERT INTO workspace.activity_log_hourly_count (workspace_id, bucket, project_id, application_id,
+                                                                 activity_type, count)
+                SELECT workspace_id, date_trunc('hour', created_at), COALESCE(project_id, ''), COALESCE(application_id, ''),
+                       activity_type, count(*)
+                FROM inserted
+                GROUP BY 1, 2, 3, 4, 5
+                ORDER BY 1, 2, 3, 4, 5
+                ON CONFLICT (workspace_id, bucket, project_id, application_id, activity_type)
+                    DO UPDATE SET count = activity_log_hourly_count.count + EXCLUDED.count
+            )
+            SELECT count(*) FROM inserted
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Insert all logs in one round trip, assigning ids to logs that have none.
+     * Logs whose message id was already ingested are skipped, so redelivered batches are harmless.
+     *
+     * @return number of inserted rows
+     */
+    public int insertAll(List<ActivityLog> logs) {
+        if (logs.isEmpty()) {
+            return 0;
+        }
+        logs.stream()
+                .filter(log -> log.getId() == null)
+                .forEach(log -> log.setId(UUID.randomUUID().toString()));
+
+        Integer inserted = jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(INSERT_SQL);
+            ps.setArray(1, varcharArray(connection, logs, ActivityLog::getId));
+            ps.setArray(2, varcharArray(connection, logs, log -> log.getActivityType().name()));
+            ps.setArray(3, varcharArray(connection, logs, ActivityLog::getDescription));
+            ps.setArray(4, varcharArray(connection, logs, ActivityLog::getWorkspaceId));
+            ps.setArray(5, varcharArray(connection, logs, ActivityLog::getProjectId));
+            ps.setArray(6, varcharArray(connection, logs, ActivityLog::getApplicationId));
+            ps.setArray(7, varcharArray(connection, logs, ActivityLog::getCreatedBy));
+            ps.setArray(8, connection.createArrayOf("timestamp", logs.stream()
+                    .map(log -> Timestamp.valueOf(log.getCreatedAt()))
+                    .toArray()));
+            ps.setArray(9, connection.createArrayOf("timestamp", logs.stream()
+                    .map(log -> log.getUpdatedAt() == null ? null : Timestamp.valueOf(log.getUpdatedAt()))
+                    .toArray()));
+            ps.setArray(10, varcharArray(connection, logs, log -> toJson(log.getVariables())));
+            ps.setArray(11, varcharArray(connection, logs, log -> toJson(log.getAttachments())));
+            ps.setArray(12, varcharArray(connection, logs, ActivityLog::getMessageId));
+            return ps;
+        }, rs -> rs.next() ? rs.getInt(1) : 0);
+        return inserted == null ? 0 : inserted;
+    }
+
+    /**
+     * Remove a deleted log from its hourly counter
+     */
+    public void decrementHourlyCount(ActivityLog log) {
+        jdbcTemplate.update("""
+                UPDATE workspace.activity_log_hourly_count SET count = count - 1
+                WHERE workspace_id = ? AND bucket = date_trunc('hour', ?::timestamp)
+                  AND project_id = COALESCE(?, '') AND application_id = COALESCE(?, '') AND activity_type = ?
+                  AND count > 0
+                """, log.getWorkspaceId(), Timestamp.valueOf(log.getCreatedAt()), log.getProjectId(),
+                log.getApplicationId(), log.getActivityType().name());
+    }
+
+    private static java.sql.Array varcharArray(Connection connection, List<ActivityLog> logs,
+            Function<ActivityLog, String> column) throws SQLException {
+        return connection.createArrayOf("varchar", logs.stream().map(column).toArray());
+    }
+
+    private String toJson(Map<String, Object> value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Failed to serialize activity log json column", e);
+        }
+    }
+}
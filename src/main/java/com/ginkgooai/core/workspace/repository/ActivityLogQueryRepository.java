@@ -0,0 +1,224 @@
+package com.ginkgooai.core.workspace.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ginkgooai.core.common.enums.ActivityType;
+import com.ginkgooai.core.workspace.domain.ActivityLog;
+import com.ginkgooai.core.workspace.dto.request.ActivityQueryRequest;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.StringUtils;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read paths for activity_log that avoid the count query Spring Data runs for every {@code Page}
+ */
+@Repository
+@RequiredArgsConstructor
+public class ActivityLogQueryRepository {
+
+    private static final String EXPORT_SQL = """
+            SELECT id, activity_type, description, workspace_id, project_id, application_id, created_by, created_at,
+                   variables::text AS variables, attachments::text AS attachments
+            FROM workspace.activity_log
+            WHERE\s""";
+
+    private final EntityManager entityManager;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Fetch one page without counting, reading a single extra row to find out whether a next page exists
+     */
+    public Slice<ActivityLogView> findSlice(Specification<ActivityLog> spec, Pageable pageable,
+                                            boolean includeAttachments) {
+        List<ActivityLogView> content = findViews(spec, pageable.getSort(), pageable.getOffset(),
+                pageable.getPageSize() + 1, includeAttachments);
+        boolean hasNext = content.size() > pageable.getPageSize();
+        if (hasNext) {
+            content = content.subList(0, pageable.getPageSize());
+        }
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    /**
+     * Fetch the first rows matching spec in the given order
+     */
+    public List<ActivityLogView> findViews(Specification<ActivityLog> spec, Sort sort, int limit,
+                                           boolean includeAttachments) {
+        return findViews(spec, sort, 0, limit, includeAttachments);
+    }
+
+    /**
+     * Selects only the columns of {@link ActivityLogView} as tuples, so rows are neither hydrated into
+     * entities nor tracked by the persistence context, and attachments are not even read unless asked for
+     */
+    private List<ActivityLogView> findViews(Specification<ActivityLog> spec, Sort sort, long offset, int limit,
+                                            boolean includeAttachments) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<ActivityLog> root = query.from(ActivityLog.class);
+
+        List<Selection<?>> columns = new ArrayList<>(List.of(root.get("id"), root.get("activityType"),
+                root.get("description"), root.get("workspaceId"), root.get("projectId"), root.get("applicationId"),
+                root.get("createdBy"), root.get("createdAt"), root.get("variables")));
+        if (includeAttachments) {
+            columns.add(root.get("attachments"));
+        }
+        query.multiselect(columns).where(spec.toPredicate(root, query, cb));
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+
+        return entityManager.createQuery(query)
+                .setFirstResult((int) offset)
+                .setMaxResults(limit)
+                .getResultList()
+                .stream()
+                .map(tuple -> toView(tuple, includeAttachments))
+                .toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ActivityLogView toView(Tuple tuple, boolean includeAttachments) {
+        return new ActivityLogView(
+                tuple.get(0, String.class),
+                tuple.get(1, ActivityType.class),
+                tuple.get(2, String.class),
+                tuple.get(3, String.class),
+                tuple.get(4, String.class),
+                tuple.get(5, String.class),
+                tuple.get(6, String.class),
+                tuple.get(7, LocalDateTime.class),
+                (Map<String, Object>) tuple.get(8),
+                includeAttachments ? (Map<String, Object>) tuple.get(9) : null);
+    }
+
+    /**
+     * Number of logs in the whole hours [from, to) according to activity_log_hourly_count
+     */
+    public long sumHourlyCounts(String workspaceId, LocalDateTime from, LocalDateTime to, String projectId,
+                                String applicationId, ActivityType activityType) {
+        StringBuilder sql = new StringBuilder("""
+                SELECT COALESCE(SUM(count), 0) FROM workspace.activity_log_hourly_count
+                WHERE workspace_id = ? AND bucket >= ? AND bucket < ?""");
+        List<Object> args = new ArrayList<>(List.of(workspaceId, Timestamp.valueOf(from), Timestamp.valueOf(to)));
+
+        if (StringUtils.hasText(projectId)) {
+            sql.append(" AND project_id = ?");
+            args.add(projectId);
+        }
+        if (StringUtils.hasText(applicationId)) {
+            sql.append(" AND application_id = ?");
+            args.add(applicationId);
+        }
+        if (activityType != null) {
+            sql.append(" AND activity_type = ?");
+            args.add(activityType.name());
+        }
+
+        Long count = jdbcTemplate.queryForObject(sql.toString(), Long.class, args.toArray());
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * Row count the query planner expects for the search filters, read from EXPLAIN without running the query.
+     * Only as accurate as the table statistics, but costs the same however many rows match.
+     */
+    public long estimateCount(String workspaceId, ActivityQueryRequest searchRequest) {
+        List<Object> args = new ArrayList<>();
+        String sql = "EXPLAIN (FORMAT JSON) SELECT 1 FROM workspace.activity_log WHERE "
+                + whereClause(workspaceId, searchRequest, args);
+
+        String plan = jdbcTemplate.queryForObject(sql, String.class, args.toArray());
+        JsonNode rows;
+        try {
+            rows = objectMapper.readTree(plan).path(0).path("Plan").path("Plan Rows");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable query plan: " + plan, e);
+        }
+        if (!rows.isNumber()) {
+            throw new IllegalStateException("Query plan without row estimate: " + plan);
+        }
+        return rows.asLong();
+    }
+
+    /**
+     * Stream every log matching the search filters to handler, oldest first.
+     * Rows are pulled from a server-side cursor fetchSize at a time, so memory use does not depend on
+     * the number of rows. PostgreSQL only uses a cursor inside a transaction, which the caller must provide.
+     */
+    public void streamRows(String workspaceId, ActivityQueryRequest searchRequest, int fetchSize,
+                           RowCallbackHandler handler) {
+        List<Object> args = new ArrayList<>();
+        String sql = EXPORT_SQL + whereClause(workspaceId, searchRequest, args) + " ORDER BY created_at, id";
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            for (int i = 0; i < args.size(); i++) {
+                ps.setObject(i + 1, args.get(i));
+            }
+            return ps;
+        }, handler);
+    }
+
+    /**
+     * SQL condition equivalent to the search specification of ActivityLogService, adding its arguments to args
+     */
+    private static String whereClause(String workspaceId, ActivityQueryRequest searchRequest, List<Object> args) {
+        StringBuilder sql = new StringBuilder("workspace_id = ?");
+        args.add(workspaceId);
+
+        if (StringUtils.hasText(searchRequest.getProjectId())) {
+            sql.append(" AND project_id = ?");
+            args.add(searchRequest.getProjectId());
+        }
+        if (StringUtils.hasText(searchRequest.getRoleId())) {
+            sql.append(" AND activity_type IN ('ROLE_CREATED', 'ROLE_STATUS_UPDATE')")
+                    .append(" AND jsonb_extract_path_text(variables, 'roleId') = ?");
+            args.add(searchRequest.getRoleId());
+        }
+        if (StringUtils.hasText(searchRequest.getApplicationId())) {
+            sql.append(" AND application_id = ?");
+            args.add(searchRequest.getApplicationId());
+        }
+        if (StringUtils.hasText(searchRequest.getActivityType())) {
+            sql.append(" AND activity_type = ?");
+            args.add(searchRequest.getActivityType());
+        }
+        if (searchRequest.getStartTime() != null) {
+            sql.append(" AND created_at >= ?");
+            args.add(Timestamp.valueOf(searchRequest.getStartTime()));
+        }
+        if (searchRequest.getEndTime() != null) {
+            sql.append(" AND created_at <= ?");
+            args.add(Timestamp.valueOf(searchRequest.getEndTime()));
+        }
+        return sql.toString();
+    }
+}
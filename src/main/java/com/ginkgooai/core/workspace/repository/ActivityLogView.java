@@ -0,0 +1,16 @@
+package com.ginkgooai.core.workspace.repository;
+
+import com.ginkgooai.core.common.enums.ActivityType;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Read-only projection of an activity log row for list views, never attached to a persistence context
+ *
+ * @param attachments null unless explicitly requested
+ */
+public record ActivityLogView(String id, ActivityType activityType, String description, String workspaceId,
+                              String projectId, String applicationId, String createdBy, LocalDateTime createdAt,
+                              Map<String, Object> variables, Map<String, Object> attachments) {
+}
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,6 +15,8 @@ public interface WorkspaceRepository
     extends JpaRepository<Workspace, String>, JpaSpecificationExecutor<Workspace> {
     List<Workspace> findByCreatedBy(String ownerId);
 
+    List<Workspace> findByCreatedByIn(Collection<String> ownerIds);
+
     Optional<Workspace> findByIdAndCreatedBy(String id, String ownerId);
 
     @Query("SELECT w FROM Workspace w WHERE w.createdBy = :ownerId AND w.status = 'ACTIVE'")
@@ -0,0 +1,95 @@
+package com.ginkgooai.core.workspace.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Activity description template such as "{user} created project {projectName}", parsed once into
+ * literal and placeholder segments and rendered in a single pass.
+ * A placeholder whose variable is missing or null is rendered as-is, variables without a placeholder
+ * are ignored. Substituted values are never scanned for placeholders themselves.
+ */
+final class ActivityDescriptionTemplate {
+
+    /**
+     * Templates come from a handful of activity types, the bound only guards against unexpected input
+     */
+    private static final Cache<String, ActivityDescriptionTemplate> COMPILED = Caffeine.newBuilder()
+            .maximumSize(1000)
+            .build();
+
+    private final String template;
+
+    /**
+     * Alternating segments: a String for literal text, a Placeholder for a variable
+     */
+    private final Object[] segments;
+
+    private ActivityDescriptionTemplate(String template, Object[] segments) {
+        this.template = template;
+        this.segments = segments;
+    }
+
+    static ActivityDescriptionTemplate of(String template) {
+        return COMPILED.get(template, ActivityDescriptionTemplate::compile);
+    }
+
+    private static ActivityDescriptionTemplate compile(String template) {
+        List<Object> segments = new ArrayList<>();
+        int literalStart = 0;
+        int open = template.indexOf('{');
+        while (open >= 0) {
+            int close = template.indexOf('}', open + 1);
+            if (close < 0) {
+                break;
+            }
+            int nestedOpen = template.lastIndexOf('{', close);
+            if (nestedOpen > open) {
+                // "{a {b}" only treats "{b}" as a placeholder
+                open = nestedOpen;
+            }
+            if (close > open + 1) {
+                if (open > literalStart) {
+                    segments.add(template.substring(literalStart, open));
+                }
+                segments.add(new Placeholder(template.substring(open + 1, close), template.substring(open, close + 1)));
+                literalStart = close + 1;
+            }
+            open = template.indexOf('{', close + 1);
+        }
+        if (literalStart < template.length()) {
+            segments.add(template.substring(literalStart));
+        }
+        return new ActivityDescriptionTemplate(template, segments.toArray());
+    }
+
+    /**
+     * Append the rendered template to out
+     */
+    void renderTo(Map<String, Object> variables, StringBuilder out) {
+        for (Object segment : segments) {
+            if (segment instanceof Placeholder placeholder) {
+                Object value = variables == null ? null : variables.get(placeholder.name());
+                out.append(value != null ? value.toString() : placeholder.raw());
+            } else {
+                out.append((String) segment);
+            }
+        }
+    }
+
+    String render(Map<String, Object> variables) {
+        if (segments.length == 1 && segments[0] instanceof String literal) {
+            return literal;
+        }
+        StringBuilder out = new StringBuilder(template.length() + 32);
+        renderTo(variables, out);
+        return out.toString();
+    }
+
+    private record Placeholder(String name, String raw) {
+    }
+}
@@ -0,0 +1,49 @@
+package com.ginkgooai.core.workspace.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of the last activity log returned by a cursor search
+ * Encoded as an opaque url-safe string so clients only ever hand it back.
+ */
+record ActivityLogCursor(LocalDateTime createdAt, String id) {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * @throws ResponseStatusException 400 when the cursor was not produced by {@link #encode()}
+     */
+    static ActivityLogCursor decode(String cursor) {
+        String value;
+        try {
+            value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw invalid(e);
+        }
+        int separator = value.indexOf(SEPARATOR);
+        if (separator <= 0 || separator == value.length() - 1) {
+            throw invalid(null);
+        }
+        try {
+            return new ActivityLogCursor(LocalDateTime.parse(value.substring(0, separator)),
+                    value.substring(separator + 1));
+        } catch (DateTimeParseException e) {
+            throw invalid(e);
+        }
+    }
+
+    private static ResponseStatusException invalid(Throwable cause) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor", cause);
+    }
+
+    String encode() {
+        String value = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
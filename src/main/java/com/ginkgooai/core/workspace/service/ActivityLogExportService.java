@@ -0,0 +1,192 @@
+package com.ginkgooai.core.workspace.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ginkgooai.core.workspace.config.datasource.ReadFromReplica;
+import com.ginkgooai.core.workspace.config.properties.ActivityLogSearchProperties;
+import com.ginkgooai.core.workspace.dto.request.ActivityQueryRequest;
+import com.ginkgooai.core.workspace.dto.request.ExportFormat;
+import com.ginkgooai.core.workspace.repository.ActivityLogQueryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * Full activity log exports
+ * Rows are copied from a database cursor straight to the response stream without building entities or
+ * response objects, so an export of any size runs in constant memory. Descriptions are exported as
+ * stored, i.e. unrendered, together with their variables; creators are exported by id.
+ */
+@Slf4j
+@Service
+public class ActivityLogExportService {
+
+    private static final String[] COLUMNS = {"id", "activity_type", "description", "workspace_id", "project_id",
+            "application_id", "created_by", "created_at", "variables", "attachments"};
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Leading characters that make spreadsheets treat a CSV field as a formula
+     */
+    private static final String FORMULA_PREFIXES = "=+-@\t\r";
+
+    private final ActivityLogQueryRepository activityLogQueryRepository;
+
+    private final ActivityLogSearchProperties properties;
+
+    private final ObjectMapper objectMapper;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public ActivityLogExportService(ActivityLogQueryRepository activityLogQueryRepository,
+                                    ActivityLogSearchProperties properties, ObjectMapper objectMapper,
+                                    PlatformTransactionManager transactionManager) {
+        this.activityLogQueryRepository = activityLogQueryRepository;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Write every log of the workspace matching the filters to out, oldest first
+     * The stream is flushed but left open.
+     *
+     * @return number of exported logs
+     */
+    @ReadFromReplica
+    public long export(String workspaceId, ActivityQueryRequest filters, ExportFormat format, OutputStream out)
+            throws IOException {
+        long start = System.currentTimeMillis();
+        long[] rows = {0};
+        try {
+            if (format == ExportFormat.CSV) {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+                writer.write(String.join(",", COLUMNS));
+                writer.write('\n');
+                stream(workspaceId, filters, rs -> {
+                    writeCsvRow(rs, writer);
+                    rows[0]++;
+                });
+                writer.flush();
+            } else {
+                JsonGenerator generator = objectMapper.getFactory().createGenerator(out)
+                        .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                // Rows are separated by the line break written after each of them, not the default space
+                generator.setRootValueSeparator(null);
+                stream(workspaceId, filters, rs -> {
+                    writeJsonRow(rs, generator);
+                    rows[0]++;
+                });
+                generator.flush();
+            }
+        } catch (UncheckedIOException e) {
+            // Usually the client went away, nothing is left to answer
+            log.warn("Activity log export of workspace {} aborted after {} rows: {}", workspaceId, rows[0],
+                    e.getMessage());
+            throw e.getCause();
+        }
+        log.info("Exported {} activity logs of workspace {} as {} in {} ms", rows[0], workspaceId, format,
+                System.currentTimeMillis() - start);
+        return rows[0];
+    }
+
+    private void stream(String workspaceId, ActivityQueryRequest filters, RowWriter rowWriter) {
+        transactionTemplate.executeWithoutResult(status -> activityLogQueryRepository.streamRows(workspaceId, filters,
+                properties.getExportFetchSize(), rs -> {
+                    try {
+                        rowWriter.write(rs);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }));
+    }
+
+    private static void writeJsonRow(ResultSet rs, JsonGenerator generator) throws SQLException, IOException {
+        generator.writeStartObject();
+        for (int i = 0; i < COLUMNS.length; i++) {
+            String value = column(rs, i);
+            generator.writeFieldName(COLUMNS[i]);
+            if (value == null) {
+                generator.writeNull();
+            } else if (isJsonColumn(i)) {
+                generator.writeRawValue(value);
+            } else {
+                generator.writeString(value);
+            }
+        }
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    private static void writeCsvRow(ResultSet rs, Writer writer) throws SQLException, IOException {
+        for (int i = 0; i < COLUMNS.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            String value = column(rs, i);
+            if (value != null) {
+                writeCsvField(value, writer);
+            }
+        }
+        writer.write('\n');
+    }
+
+    /**
+     * RFC 4180 field, quoted only when it contains a separator, quote or line break
+     * Fields a spreadsheet would evaluate as a formula are prefixed with a single quote, so they are shown as text.
+     */
+    private static void writeCsvField(String value, Writer writer) throws IOException {
+        if (!value.isEmpty() && FORMULA_PREFIXES.indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+
+    private static String column(ResultSet rs, int index) throws SQLException {
+        if (COLUMNS[index].equals("created_at")) {
+            Timestamp createdAt = rs.getTimestamp(index + 1);
+            return createdAt == null ? null : createdAt.toLocalDateTime().toString();
+        }
+        return rs.getString(index + 1);
+    }
+
+    private static boolean isJsonColumn(int index) {
+        return COLUMNS[index].equals("variables") || COLUMNS[index].equals("attachments");
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(ResultSet rs) throws SQLException, IOException;
+    }
+}
@@ -0,0 +1,235 @@
+package com.ginkgooai.core.workspace.service;
+
+import com.ginkgooai.core.workspace.config.properties.ActivityLogPartitionProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Maintains the monthly partitions of activity_log
+ * Creates the partitions of the coming months ahead of time, moving rows of those months out of the default
+ * partition, and, once a retention is configured, detaches partitions older than it. Dropping them is a separate
+ * opt-in; dropping a whole partition is instant and leaves no dead tuples behind, unlike deleting old rows. Runs
+ * on startup and then daily; replicas are serialized through a PostgreSQL advisory lock.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ActivityLogPartitionService {
+
+    private static final String PARENT = "activity_log";
+
+    private static final Pattern PARTITION_NAME = Pattern.compile("activity_log_p(\\d{6})");
+
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    /**
+     * Advisory lock key shared by every instance
+     */
+    private static final long LOCK_KEY = 0x6163745f6c6f6750L;
+
+    private static final String PARTITIONS_SQL = """
+            SELECT c.relname
+            FROM pg_inherits i
+                     JOIN pg_class c ON c.oid = i.inhrelid
+                     JOIN pg_class p ON p.oid = i.inhparent
+                     JOIN pg_namespace n ON n.oid = p.relnamespace
+            WHERE n.nspname = 'workspace' AND p.relname = ?
+            """;
+
+    /**
+     * Transaction-local copy of the rows taken out of the default partition while a partition is created
+     */
+    private static final String PARK_SQL = """
+            CREATE TEMPORARY TABLE activity_log_parked ON COMMIT DROP AS
+            SELECT * FROM workspace.activity_log_default WHERE created_at >= ? AND created_at < ?
+            """;
+
+    private static final String UNPARK_SQL = "INSERT INTO workspace.activity_log SELECT * FROM activity_log_parked";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ActivityLogPartitionProperties properties;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${activity.log.partition.maintenance-cron:0 0 3 * * *}")
+    public void maintainPartitions() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                if (!tryLock(connection)) {
+                    log.debug("Activity log partition maintenance already running elsewhere");
+                    return null;
+                }
+                try {
+                    createUpcomingPartitions(connection);
+                    expirePartitions(connection);
+                } finally {
+                    unlock(connection);
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            log.error("Activity log partition maintenance failed", e);
+        }
+    }
+
+    /**
+     * Each month is created on its own, a failure is logged and does not stop the other months or the retention
+     */
+    private void createUpcomingPartitions(Connection connection) {
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= properties.getPremakeMonths(); i++) {
+            YearMonth month = current.plusMonths(i);
+            try {
+                createPartition(connection, month);
+            } catch (SQLException e) {
+                log.error("Failed to create activity log partition {}", partitionName(month), e);
+            }
+        }
+    }
+
+    /**
+     * Create the partition of a month
+     * Rows of that month already in the default partition would make CREATE TABLE ... PARTITION OF fail, so
+     * within the same transaction they are moved out of the default partition first and re-inserted once the
+     * new partition exists.
+     */
+    private void createPartition(Connection connection, YearMonth month) throws SQLException {
+        String partition = partitionName(month);
+        Timestamp from = Timestamp.valueOf(month.atDay(1).atStartOfDay());
+        Timestamp to = Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay());
+        if (partitionExists(connection, partition)) {
+            return;
+        }
+
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            // Creating the partition locks the default partition anyway, taking the lock first keeps concurrent
+            // inserts from slipping in between copying and deleting the rows
+            statement.execute("LOCK TABLE workspace.activity_log_default IN EXCLUSIVE MODE");
+            int moved;
+            try (PreparedStatement park = connection.prepareStatement(PARK_SQL);
+                 PreparedStatement delete = connection.prepareStatement(
+                         "DELETE FROM workspace.activity_log_default WHERE created_at >= ? AND created_at < ?")) {
+                park.setTimestamp(1, from);
+                park.setTimestamp(2, to);
+                park.execute();
+                delete.setTimestamp(1, from);
+                delete.setTimestamp(2, to);
+                moved = delete.executeUpdate();
+            }
+            statement.execute(String.format(
+                    "CREATE TABLE workspace.%s PARTITION OF workspace.%s FOR VALUES FROM ('%s') TO ('%s')",
+                    partition, PARENT, month.atDay(1), month.plusMonths(1).atDay(1)));
+            if (moved > 0) {
+                statement.execute(UNPARK_SQL);
+                log.warn("Moved {} activity logs out of the default partition into {}", moved, partition);
+            }
+            connection.commit();
+            log.info("Created activity log partition {}", partition);
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private void expirePartitions(Connection connection) throws SQLException {
+        if (properties.getRetentionMonths() <= 0) {
+            return;
+        }
+        YearMonth oldestKept = YearMonth.now().minusMonths(properties.getRetentionMonths());
+
+        List<YearMonth> expired = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(PARTITIONS_SQL)) {
+            statement.setString(1, PARENT);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    Matcher matcher = PARTITION_NAME.matcher(rs.getString(1));
+                    if (matcher.matches()) {
+                        YearMonth month = YearMonth.parse(matcher.group(1), SUFFIX);
+                        if (month.isBefore(oldestKept)) {
+                            expired.add(month);
+                        }
+                    }
+                }
+            }
+        }
+
+        try (Statement statement = connection.createStatement();
+             PreparedStatement deleteCounts = connection.prepareStatement(
+                     "DELETE FROM workspace.activity_log_hourly_count WHERE bucket >= ? AND bucket < ?")) {
+            for (YearMonth month : expired) {
+                String partition = partitionName(month);
+                try {
+                    statement.execute(String.format("ALTER TABLE workspace.%s DETACH PARTITION workspace.%s", PARENT, partition));
+                    // Hourly counters of the month no longer have rows behind them; those of a partition that
+                    // could not be detached still do and are kept
+                    deleteCounts.setTimestamp(1, Timestamp.valueOf(month.atDay(1).atStartOfDay()));
+                    deleteCounts.setTimestamp(2, Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay()));
+                    deleteCounts.executeUpdate();
+                    if (properties.isDropExpired()) {
+                        statement.execute(String.format("DROP TABLE workspace.%s", partition));
+                        log.info("Dropped expired activity log partition {}", partition);
+                    } else {
+                        log.info("Detached expired activity log partition {}", partition);
+                    }
+                } catch (SQLException e) {
+                    log.error("Failed to expire activity log partition {}", partition, e);
+                }
+            }
+        }
+    }
+
+    private static boolean partitionExists(Connection connection, String partition) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT to_regclass(?) IS NOT NULL")) {
+            statement.setString(1, "workspace." + partition);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    private static String partitionName(YearMonth month) {
+        return PARENT + "_p" + month.format(SUFFIX);
+    }
+
+    private static boolean tryLock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_try_advisory_lock(?)")) {
+            statement.setLong(1, LOCK_KEY);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    private static void unlock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_advisory_unlock(?)")) {
+            statement.setLong(1, LOCK_KEY);
+            statement.execute();
+        }
+    }
+}
@@ -1,28 +1,42 @@
 package com.ginkgooai.core.workspace.service;
 
 import com.ginkgooai.core.common.enums.ActivityType;
-import com.ginkgooai.core.common.exception.RemoteServiceException;
 import com.ginkgooai.core.common.exception.ResourceNotFoundException;
 import com.ginkgooai.core.common.utils.ContextUtils;
 import com.ginkgooai.core.common.utils.TimeUtils;
-import com.ginkgooai.core.workspace.client.identity.UserClient;
 import com.ginkgooai.core.workspace.client.identity.dto.UserInfo;
+import com.ginkgooai.core.workspace.config.cache.CacheConfig;
+import com.ginkgooai.core.workspace.config.datasource.ReadFromReplica;
 import com.ginkgooai.core.workspace.domain.ActivityLog;
 import com.ginkgooai.core.workspace.dto.request.ActivityQueryRequest;
 import com.ginkgooai.core.workspace.dto.response.ActivityLogResponse;
+import com.ginkgooai.core.workspace.dto.response.ActivityLogSliceResponse;
+import com.ginkgooai.core.workspace.repository.ActivityLogBulkRepository;
+import com.ginkgooai.core.workspace.repository.ActivityLogQueryRepository;
+import com.ginkgooai.core.workspace.repository.ActivityLogView;
 import com.ginkgooai.core.workspace.repository.ActivityLogRepository;
 import jakarta.persistence.criteria.Predicate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.Assert;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.StringUtils;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -32,25 +46,41 @@ import java.util.stream.Collectors;
 @Slf4j
 public class ActivityLogService {
 
+	private static final int DESCRIPTION_BUFFER_SIZE = 256;
+
+	private static final Sort CURSOR_SORT = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+
 	private final ActivityLogRepository activityLogRepository;
 
-	private final UserClient userClient;
+	private final ActivityLogBulkRepository activityLogBulkRepository;
+
+	private final ActivityLogQueryRepository activityLogQueryRepository;
+
+	private final CacheManager cacheManager;
+
+	private final UserInfoService userInfoService;
 
+	/**
+	 * Fill the {variable} placeholders of a description template, see {@link ActivityDescriptionTemplate}
+	 */
 	public String formatActivityDescription(String template, Map<String, Object> variables) {
-		for (String variable : variables.keySet()) {
-			Object value = variables.get(variable);
-			if (value != null) {
-				template = template.replace("{" + variable + "}", value.toString());
-			}
-		}
-		return template;
+		return template == null ? null : ActivityDescriptionTemplate.of(template).render(variables);
 	}
 
 	/**
 	 * Batch create activity logs
+	 * Written through the bulk repository in a single statement instead of one JPA insert per row,
+	 * logs carrying an already ingested message id are skipped. Logs keep the creation time of their
+	 * message, so a redelivered message maps to the same row of the same partition; a log without one
+	 * is rejected rather than stamped with the insert time, which would defeat the deduplication.
+	 *
+	 * @return number of logs actually inserted
 	 */
 	@Transactional
-	public List<ActivityLog> createLogs(List<ActivityLog> requests) {
+	public int createLogs(List<ActivityLog> requests) {
+		requests.forEach(request -> Assert.notNull(request.getCreatedAt(),
+			() -> "Activity log " + request.getMessageId() + " has no creation time"));
+		LocalDateTime now = LocalDateTime.now();
 		List<ActivityLog> logs = requests.stream()
 			.map(request -> ActivityLog.builder()
 				.activityType(request.getActivityType())
@@ -61,17 +91,24 @@ public class ActivityLogService {
 				.variables(request.getVariables())
 				.attachments(request.getAttachments())
 				.createdBy(request.getCreatedBy())
-				.createdAt(LocalDateTime.now())
-				.updatedAt(LocalDateTime.now())
+				.messageId(request.getMessageId())
+				.createdAt(request.getCreatedAt())
+				.updatedAt(now)
 				.build())
 			.collect(Collectors.toList());
 
-		return activityLogRepository.saveAll(logs);
+		int inserted = activityLogBulkRepository.insertAll(logs);
+		if (inserted < logs.size()) {
+			log.debug("Skipped {} already ingested activity logs", logs.size() - inserted);
+		}
+		return inserted;
 	}
 
 	/**
 	 * Get log by id
 	 */
+	@ReadFromReplica
+	@Transactional(readOnly = true)
 	public ActivityLog getLogById(String id) {
 		return activityLogRepository.findById(id)
 			.orElseThrow(() -> new ResourceNotFoundException("Activity log", "id", id));
@@ -79,9 +116,138 @@ public class ActivityLogService {
 
 	/**
 	 * Search logs with conditions
+	 * The page is read without Spring Data's count query, the total is then computed as asked by
+	 * {@link ActivityQueryRequest#getCountMode()}. Returns a {@code Page} unless the count mode is NONE.
+	 */
+	@ReadFromReplica
+	@Transactional(readOnly = true)
+	public Slice<ActivityLogResponse> search(ActivityQueryRequest searchRequest, Pageable pageable) {
+		Slice<ActivityLogView> activityLogs = activityLogQueryRepository.findSlice(searchSpecification(searchRequest),
+				pageable, searchRequest.isIncludeAttachments());
+		Map<String, UserInfo> users = resolveUsers(activityLogs.getContent());
+		StringBuilder buffer = new StringBuilder(DESCRIPTION_BUFFER_SIZE);
+		Slice<ActivityLogResponse> responses = activityLogs
+			.map(activityLog -> convertToResponse(activityLog, users, buffer));
+
+		return switch (searchRequest.getCountMode()) {
+			case NONE -> responses;
+			case EXACT -> PageableExecutionUtils.getPage(responses.getContent(), pageable,
+					() -> countExact(searchRequest));
+			case CACHED -> PageableExecutionUtils.getPage(responses.getContent(), pageable,
+					() -> countCached(searchRequest));
+			case ESTIMATED -> PageableExecutionUtils.getPage(responses.getContent(), pageable,
+					() -> Math.max(countEstimated(searchRequest),
+							pageable.getOffset() + responses.getNumberOfElements() + (responses.hasNext() ? 1 : 0)));
+		};
+	}
+
+	/**
+	 * Exact number of logs matching the search, kept in the count cache for CACHED and ESTIMATED searches
+	 */
+	private long countExact(ActivityQueryRequest searchRequest) {
+		long count = activityLogRepository.count(searchSpecification(searchRequest));
+		countCache().put(countCacheKey(searchRequest), count);
+		return count;
+	}
+
+	/**
+	 * Exact number of logs matching the search, shared between instances for a short time
+	 */
+	private long countCached(ActivityQueryRequest searchRequest) {
+		Cache.ValueWrapper cached = countCache().get(countCacheKey(searchRequest));
+		if (cached != null && cached.get() instanceof Number count) {
+			return count.longValue();
+		}
+		return countExact(searchRequest);
+	}
+
+	/**
+	 * Cached exact count when there is one, otherwise the planner's estimate
+	 */
+	private long countEstimated(ActivityQueryRequest searchRequest) {
+		Cache.ValueWrapper cached = countCache().get(countCacheKey(searchRequest));
+		if (cached != null && cached.get() instanceof Number count) {
+			return count.longValue();
+		}
+
+		try {
+			return activityLogQueryRepository.estimateCount(ContextUtils.getWorkspaceId(), searchRequest);
+		}
+		catch (DataAccessException | IllegalStateException e) {
+			log.warn("Falling back to an exact activity log count: {}", e.getMessage());
+			return countExact(searchRequest);
+		}
+	}
+
+	private Cache countCache() {
+		return cacheManager.getCache(CacheConfig.ACTIVITY_LOG_COUNT_CACHE);
+	}
+
+	/**
+	 * Workspace followed by a digest of every filter of the search
+	 */
+	private static String countCacheKey(ActivityQueryRequest searchRequest) {
+		String filters = String.join("|", String.valueOf(searchRequest.getProjectId()),
+				String.valueOf(searchRequest.getApplicationId()), String.valueOf(searchRequest.getRoleId()),
+				String.valueOf(searchRequest.getActivityType()), String.valueOf(searchRequest.getStatus()),
+				String.valueOf(searchRequest.getStartTime()), String.valueOf(searchRequest.getEndTime()));
+		return ContextUtils.getWorkspaceId() + ":" + DigestUtils.md5Hex(filters);
+	}
+
+	/**
+	 * Search logs with conditions, newest first, continuing after the given cursor
+	 * Seeks directly to the cursor position instead of skipping rows with an offset and runs no count query,
+	 * so every slice costs the same regardless of how deep the client has scrolled.
+	 *
+	 * @param cursor nextCursor of the previous slice, null for the first slice
 	 */
-	public Page<ActivityLogResponse> search(ActivityQueryRequest searchRequest, Pageable pageable) {
-		Specification<ActivityLog> spec = (root, query, cb) -> {
+	@ReadFromReplica
+	@Transactional(readOnly = true)
+	public ActivityLogSliceResponse searchByCursor(ActivityQueryRequest searchRequest, String cursor, int size) {
+		if (size < 1) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Slice size must be positive");
+		}
+		Specification<ActivityLog> spec = searchSpecification(searchRequest);
+		if (StringUtils.hasText(cursor)) {
+			spec = spec.and(after(ActivityLogCursor.decode(cursor)));
+		}
+
+		List<ActivityLogView> activityLogs = activityLogQueryRepository.findViews(spec, CURSOR_SORT, size + 1,
+				searchRequest.isIncludeAttachments());
+		boolean hasNext = activityLogs.size() > size;
+		if (hasNext) {
+			activityLogs = activityLogs.subList(0, size);
+		}
+
+		Map<String, UserInfo> users = resolveUsers(activityLogs);
+		String nextCursor = null;
+		if (hasNext) {
+			ActivityLogView last = activityLogs.get(activityLogs.size() - 1);
+			nextCursor = new ActivityLogCursor(last.createdAt(), last.id()).encode();
+		}
+
+		StringBuilder buffer = new StringBuilder(DESCRIPTION_BUFFER_SIZE);
+		return ActivityLogSliceResponse.builder()
+			.content(activityLogs.stream().map(activityLog -> convertToResponse(activityLog, users, buffer)).toList())
+			.size(size)
+			.hasNext(hasNext)
+			.nextCursor(nextCursor)
+			.build();
+	}
+
+	/**
+	 * Rows strictly before the cursor in (createdAt, id) descending order, i.e. (created_at, id) < (?, ?)
+	 * Spelled as created_at <= ? AND (created_at < ? OR id < ?) since criteria queries have no row values,
+	 * the leading bound keeps it a range scan on the created_at index.
+	 */
+	private static Specification<ActivityLog> after(ActivityLogCursor cursor) {
+		return (root, query, cb) -> cb.and(cb.lessThanOrEqualTo(root.get("createdAt"), cursor.createdAt()),
+				cb.or(cb.lessThan(root.get("createdAt"), cursor.createdAt()),
+						cb.lessThan(root.get("id"), cursor.id())));
+	}
+
+	private Specification<ActivityLog> searchSpecification(ActivityQueryRequest searchRequest) {
+		return (root, query, cb) -> {
 			List<Predicate> predicates = new ArrayList<>();
 
 			predicates.add(cb.equal(root.get("workspaceId"), ContextUtils.getWorkspaceId()));
@@ -121,41 +287,53 @@ public class ActivityLogService {
 
 			return cb.and(predicates.toArray(new Predicate[0]));
 		};
-
-		Page<ActivityLog> activityLogs = activityLogRepository.findAll(spec, pageable);
-		return activityLogs.map(this::convertToResponse);
 	}
 
 	/**
-	 * Convert ActivityLog to ActivityLogResponse with enhanced information
+	 * Resolve the distinct creators of a page at once, see {@link UserInfoService}
 	 */
-	private ActivityLogResponse convertToResponse(ActivityLog activityLog) {
-		UserInfo userInfo = new UserInfo();
-		if (!ObjectUtils.isEmpty(activityLog.getCreatedBy())) {
-			try {
-				userInfo = userClient.getUserById(activityLog.getCreatedBy()).getBody();
-			}
-			catch (RemoteServiceException e) {
-				log.error("Error fetching user info: {}", e.getMessage());
-			}
+	private Map<String, UserInfo> resolveUsers(List<ActivityLogView> activityLogs) {
+		Set<String> userIds = activityLogs.stream()
+			.map(ActivityLogView::createdBy)
+			.filter(StringUtils::hasText)
+			.collect(Collectors.toSet());
+		if (userIds.isEmpty()) {
+			return Map.of();
 		}
+		return userInfoService.getUsers(userIds);
+	}
 
-		String timeAgo = TimeUtils.getTimeAgo(activityLog.getCreatedAt());
-		Map<String, Object> variables = activityLog.getVariables();
+	/**
+	 * Convert an activity log row to ActivityLogResponse with enhanced information
+	 * @param buffer scratch space for the description, reused across the rows of a page
+	 */
+	private ActivityLogResponse convertToResponse(ActivityLogView activityLog, Map<String, UserInfo> users,
+			StringBuilder buffer) {
+		UserInfo userInfo = ObjectUtils.isEmpty(activityLog.createdBy()) ? new UserInfo()
+				: users.getOrDefault(activityLog.createdBy(), new UserInfo());
+
+		String timeAgo = TimeUtils.getTimeAgo(activityLog.createdAt());
+		// Projected rows are not managed, their variables can be filled in place
+		Map<String, Object> variables = activityLog.variables() == null ? new HashMap<>() : activityLog.variables();
 		variables.put("user", Optional.ofNullable(userInfo.getName()).orElse("unknown"));
-		String description = formatActivityDescription(activityLog.getDescription(), activityLog.getVariables());
+		String description = null;
+		if (activityLog.description() != null) {
+			buffer.setLength(0);
+			ActivityDescriptionTemplate.of(activityLog.description()).renderTo(variables, buffer);
+			description = buffer.toString();
+		}
 
 		return ActivityLogResponse.builder()
-			.id(activityLog.getId())
-			.activityType(activityLog.getActivityType())
+			.id(activityLog.id())
+			.activityType(activityLog.activityType())
 			.description(description)
-			.workspaceId(activityLog.getWorkspaceId())
-			.projectId(activityLog.getProjectId())
-			.applicationId(activityLog.getApplicationId())
-			.variables(activityLog.getVariables())
-			.attachments(activityLog.getAttachments())
-			.createdBy(activityLog.getCreatedBy())
-			.createdAt(activityLog.getCreatedAt())
+			.workspaceId(activityLog.workspaceId())
+			.projectId(activityLog.projectId())
+			.applicationId(activityLog.applicationId())
+			.variables(variables)
+			.attachments(activityLog.attachments())
+			.createdBy(activityLog.createdBy())
+			.createdAt(activityLog.createdAt())
 			.timeAgo(timeAgo)
 			.userInfo(ActivityLogResponse.UserInfo.builder()
 				.id(userInfo.getId())
@@ -169,13 +347,60 @@ public class ActivityLogService {
 	 * Delete log by id
 	 */
 	public void deleteLog(String id) {
-		activityLogRepository.deleteById(id);
+		activityLogRepository.findById(id).ifPresent(activityLog -> {
+			activityLogRepository.delete(activityLog);
+			activityLogBulkRepository.decrementHourlyCount(activityLog);
+		});
 	}
 
+	/**
+	 * Count logs in a time range
+	 * Whole hours are summed from the hourly counters maintained by ingestion, only the partial hours
+	 * at both ends of the range are counted on activity_log, so the cost does not grow with the range.
+	 */
+	@ReadFromReplica
+	@Transactional(readOnly = true)
 	public long countActivityLogs(String workspaceId, LocalDateTime startTime, LocalDateTime endTime, String projectId,
 			String applicationId, String activityType) {
+		ActivityType type = null;
+		if (StringUtils.hasText(activityType)) {
+			try {
+				type = ActivityType.valueOf(activityType);
+			}
+			catch (IllegalArgumentException e) {
+				log.warn("Invalid activity type: {}", activityType);
+			}
+		}
 
-		Specification<ActivityLog> spec = (root, query, cb) -> {
+		if (startTime == null || endTime == null) {
+			return activityLogRepository
+				.count(countSpecification(workspaceId, startTime, endTime, true, projectId, applicationId, type));
+		}
+
+		LocalDateTime firstBucket = startTime.truncatedTo(ChronoUnit.HOURS);
+		if (firstBucket.isBefore(startTime)) {
+			firstBucket = firstBucket.plusHours(1);
+		}
+		LocalDateTime lastBucket = endTime.truncatedTo(ChronoUnit.HOURS);
+		if (!firstBucket.isBefore(lastBucket)) {
+			return activityLogRepository
+				.count(countSpecification(workspaceId, startTime, endTime, true, projectId, applicationId, type));
+		}
+
+		long count = activityLogQueryRepository.sumHourlyCounts(workspaceId, firstBucket, lastBucket, projectId,
+				applicationId, type);
+		if (startTime.isBefore(firstBucket)) {
+			count += activityLogRepository
+				.count(countSpecification(workspaceId, startTime, firstBucket, false, projectId, applicationId, type));
+		}
+		count += activityLogRepository
+			.count(countSpecification(workspaceId, lastBucket, endTime, true, projectId, applicationId, type));
+		return count;
+	}
+
+	private static Specification<ActivityLog> countSpecification(String workspaceId, LocalDateTime startTime,
+			LocalDateTime endTime, boolean endInclusive, String projectId, String applicationId, ActivityType type) {
+		return (root, query, cb) -> {
 			List<Predicate> predicates = new ArrayList<>();
 
 			predicates.add(cb.equal(root.get("workspaceId"), workspaceId));
@@ -185,7 +410,8 @@ public class ActivityLogService {
 			}
 
 			if (endTime != null) {
-				predicates.add(cb.lessThanOrEqualTo(root.get("createdAt"), endTime));
+				predicates.add(endInclusive ? cb.lessThanOrEqualTo(root.get("createdAt"), endTime)
+						: cb.lessThan(root.get("createdAt"), endTime));
 			}
 
 			if (StringUtils.hasText(projectId)) {
@@ -196,20 +422,12 @@ public class ActivityLogService {
 				predicates.add(cb.equal(root.get("applicationId"), applicationId));
 			}
 
-			if (StringUtils.hasText(activityType)) {
-				try {
-					ActivityType type = ActivityType.valueOf(activityType);
-					predicates.add(cb.equal(root.get("activityType"), type));
-				}
-				catch (IllegalArgumentException e) {
-					log.warn("Invalid activity type: {}", activityType);
-				}
+			if (type != null) {
+				predicates.add(cb.equal(root.get("activityType"), type));
 			}
 
 			return cb.and(predicates.toArray(new Predicate[0]));
 		};
-
-		return activityLogRepository.count(spec);
 	}
 
-}
\ No newline at end of file
+}
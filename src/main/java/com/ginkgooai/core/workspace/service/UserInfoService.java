@@ -0,0 +1,242 @@
+package com.ginkgooai.core.workspace.service;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.ginkgooai.core.workspace.client.identity.UserClient;
+import com.ginkgooai.core.workspace.client.identity.dto.UserInfo;
+import com.ginkgooai.core.workspace.config.cache.CacheConfig;
+import com.ginkgooai.core.workspace.config.properties.UserInfoCacheProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.util.ByteUtils;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Identity service users behind a two-level cache
+ * Users are looked up in a bounded in-process cache first, then in the shared Redis cache and
+ * finally in the identity service with a single batched call, each level failing independently. Entries older than the refresh
+ * interval are served as-is while they are reloaded in the background, so pages keep rendering
+ * with cached names and pictures when the identity service is slow or down.
+ */
+@Slf4j
+@Service
+public class UserInfoService {
+
+    private final UserClient userClient;
+
+    private final RedisConnectionFactory connectionFactory;
+
+    /**
+     * Key prefix, serializers and TTL of the shared cache, which is read and written in batches
+     * directly on the connection
+     */
+    private final RedisCacheConfiguration sharedCache;
+
+    private final String sharedKeyPrefix;
+
+    private final LoadingCache<String, CachedUser> localCache;
+
+    private final Counter sharedHits;
+    private final Counter sharedMisses;
+
+    public UserInfoService(UserClient userClient, CacheManager cacheManager, RedisConnectionFactory connectionFactory,
+                           UserInfoCacheProperties properties, MeterRegistry registry) {
+        this.userClient = userClient;
+        this.connectionFactory = connectionFactory;
+        this.sharedCache = ((RedisCache) cacheManager.getCache(CacheConfig.USER_INFO_CACHE)).getCacheConfiguration();
+        this.sharedKeyPrefix = sharedCache.getKeyPrefixFor(CacheConfig.USER_INFO_CACHE);
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .refreshAfterWrite(properties.getRefreshAfterWrite(), TimeUnit.MILLISECONDS)
+                .expireAfter(new CachedUserExpiry(properties))
+                .recordStats()
+                .build(new UserLoader());
+        CaffeineCacheMetrics.monitor(registry, localCache, "user.info.local");
+        this.sharedHits = Counter.builder("user.info.shared.requests")
+                .description("Lookups of identity users in the shared Redis cache")
+                .tag("result", "hit")
+                .register(registry);
+        this.sharedMisses = Counter.builder("user.info.shared.requests")
+                .description("Lookups of identity users in the shared Redis cache")
+                .tag("result", "miss")
+                .register(registry);
+    }
+
+    /**
+     * Resolve users by id
+     * Every level answers on its own: users found in process or in Redis are still returned when the
+     * identity service cannot be reached, and the identity service is still asked when Redis is down.
+     *
+     * @return the known users keyed by id, unknown ids are absent
+     */
+    public Map<String, UserInfo> getUsers(Collection<String> userIds) {
+        Map<String, CachedUser> cached = new HashMap<>(localCache.getAllPresent(userIds));
+        Set<String> missing = userIds.stream()
+                .filter(id -> !cached.containsKey(id))
+                .collect(Collectors.toSet());
+        if (!missing.isEmpty()) {
+            Map<String, CachedUser> loaded = resolveMissing(missing);
+            localCache.putAll(loaded);
+            cached.putAll(loaded);
+        }
+
+        Map<String, UserInfo> users = new HashMap<>();
+        cached.forEach((id, entry) -> {
+            if (entry.user() != null) {
+                users.put(id, entry.user());
+            }
+        });
+        return users;
+    }
+
+    /**
+     * Look up users missing from the in-process cache in Redis first, the rest is fetched in one identity call.
+     * Ids the identity service could not be asked about are left out, so they are not cached as unknown.
+     */
+    private Map<String, CachedUser> resolveMissing(Collection<String> userIds) {
+        Map<String, CachedUser> result = readShared(userIds);
+        List<String> missing = userIds.stream()
+                .filter(id -> !result.containsKey(id))
+                .collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            try {
+                result.putAll(fetch(missing));
+            } catch (RuntimeException e) {
+                log.error("Error fetching user info: {}", e.getMessage());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Users found in the shared Redis cache with a single MGET, empty when Redis cannot be reached
+     */
+    private Map<String, CachedUser> readShared(Collection<String> userIds) {
+        Map<String, CachedUser> found = new HashMap<>();
+        List<String> ids = new ArrayList<>(userIds);
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            List<byte[]> values = connection.stringCommands().mGet(ids.stream()
+                    .map(this::sharedKey)
+                    .toArray(byte[][]::new));
+            for (int i = 0; i < ids.size(); i++) {
+                byte[] value = values == null ? null : values.get(i);
+                if (value == null) {
+                    sharedMisses.increment();
+                } else {
+                    sharedHits.increment();
+                    found.put(ids.get(i), new CachedUser((UserInfo) sharedCache.getValueSerializationPair()
+                            .read(ByteBuffer.wrap(value))));
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Shared user cache unavailable, asking the identity service: {}", e.getMessage());
+        }
+        return found;
+    }
+
+    /**
+     * Ask the identity service for the given users and share the result with the other instances
+     */
+    private Map<String, CachedUser> fetch(Collection<String> userIds) {
+        List<UserInfo> users = userClient.getUsersByIds(userIds).getBody();
+        Map<String, UserInfo> found = users == null ? Map.of() : users.stream()
+                .filter(user -> user.getId() != null)
+                .collect(Collectors.toMap(UserInfo::getId, user -> user, (first, second) -> first));
+
+        Map<String, CachedUser> result = new HashMap<>();
+        for (String id : userIds) {
+            result.put(id, new CachedUser(found.get(id)));
+        }
+        writeShared(found);
+        return result;
+    }
+
+    /**
+     * Store users in the shared Redis cache with their TTL, all in one pipeline
+     */
+    private void writeShared(Map<String, UserInfo> users) {
+        if (users.isEmpty()) {
+            return;
+        }
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.openPipeline();
+            users.forEach((id, user) -> connection.stringCommands().set(sharedKey(id),
+                    ByteUtils.getBytes(sharedCache.getValueSerializationPair().write(user)),
+                    Expiration.from(sharedCache.getTtlFunction().getTimeToLive(id, user)),
+                    RedisStringCommands.SetOption.upsert()));
+            connection.closePipeline();
+        } catch (RuntimeException e) {
+            log.warn("Failed to share user info through Redis: {}", e.getMessage());
+        }
+    }
+
+    private byte[] sharedKey(String id) {
+        return ByteUtils.getBytes(sharedCache.getKeySerializationPair().write(sharedKeyPrefix + id));
+    }
+
+    private class UserLoader implements CacheLoader<String, CachedUser> {
+
+        @Override
+        public CachedUser load(String id) {
+            return resolveMissing(List.of(id)).get(id);
+        }
+
+        /**
+         * Background refreshes skip Redis, whose copy is at least as old as the local one.
+         * A failed refresh keeps serving the previous value.
+         */
+        @Override
+        public CachedUser reload(String id, CachedUser oldValue) {
+            return fetch(List.of(id)).get(id);
+        }
+    }
+
+    /**
+     * Unknown users are kept for the short negative TTL, known users for the full expiry
+     */
+    private record CachedUserExpiry(UserInfoCacheProperties properties) implements Expiry<String, CachedUser> {
+
+        @Override
+        public long expireAfterCreate(String id, CachedUser entry, long currentTime) {
+            return TimeUnit.MILLISECONDS.toNanos(entry.user() == null
+                    ? properties.getNegativeTtl() : properties.getExpireAfterWrite());
+        }
+
+        @Override
+        public long expireAfterUpdate(String id, CachedUser entry, long currentTime, long currentDuration) {
+            return expireAfterCreate(id, entry, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String id, CachedUser entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    /**
+     * Cache entry, a null user marks an id the identity service does not know
+     */
+    private record CachedUser(UserInfo user) {
+    }
+}
@@ -6,14 +6,22 @@ import com.ginkgooai.core.workspace.domain.Workspace;
 import com.ginkgooai.core.workspace.repository.WorkspaceRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.stereotype.Service;
 import org.springframework.util.ObjectUtils;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -60,6 +68,89 @@ public class WorkspaceContextService {
         return workspaceId.split(",")[0];
     }
     
+    /**
+     * Gets the workspace context for many users at once
+     * Reads all cached contexts and their TTLs in one pipelined round trip, refreshes the expiring ones
+     * in a second pipeline and resolves all cache misses with a single database query, whose results are
+     * written back in a third pipeline.
+     * @param userIds The user identifiers
+     * @return The workspace identifier per user; users without any workspace are absent
+     */
+    public Map<String, String> getUserWorkspaceContexts(Collection<String> userIds) {
+        List<String> users = userIds.stream().distinct().toList();
+        Map<String, String> contexts = new HashMap<>();
+        if (users.isEmpty()) {
+            return contexts;
+        }
+
+        List<Object> cached = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                users.forEach(userId -> {
+                    String key = RedisKey.WORKSPACE_CONTEXT_KEY_PREFIX + userId;
+                    ops.opsForValue().get(key);
+                    ops.getExpire(key, TimeUnit.SECONDS);
+                });
+                return null;
+            }
+        });
+
+        List<String> misses = new ArrayList<>();
+        List<String> expiring = new ArrayList<>();
+        for (int i = 0; i < users.size(); i++) {
+            String userId = users.get(i);
+            Object workspaceIds = cached.get(i * 2);
+            Object ttl = cached.get(i * 2 + 1);
+            if (workspaceIds == null) {
+                misses.add(userId);
+                continue;
+            }
+            contexts.put(userId, workspaceIds.toString().split(",")[0]);
+            if (ttl instanceof Long seconds && seconds > 0 && seconds < REFRESH_THRESHOLD) {
+                expiring.add(RedisKey.WORKSPACE_CONTEXT_KEY_PREFIX + userId);
+            }
+        }
+
+        if (!expiring.isEmpty()) {
+            log.debug("Refreshing {} expiring workspace contexts", expiring.size());
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                    expiring.forEach(key -> operations.expire((K) key, EXPIRATION, TimeUnit.SECONDS));
+                    return null;
+                }
+            });
+        }
+
+        if (!misses.isEmpty()) {
+            Map<String, List<String>> workspacesByUser = workspaceRepository.findByCreatedByIn(misses).stream()
+                    .collect(Collectors.groupingBy(Workspace::getCreatedBy,
+                            Collectors.mapping(Workspace::getId, Collectors.toList())));
+            workspacesByUser.forEach((userId, workspaceIds) -> contexts.put(userId, workspaceIds.get(0)));
+            if (!workspacesByUser.isEmpty()) {
+                redisTemplate.executePipelined(new SessionCallback<Object>() {
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                        RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                        workspacesByUser.forEach((userId, workspaceIds) -> ops.opsForValue().set(
+                                RedisKey.WORKSPACE_CONTEXT_KEY_PREFIX + userId, String.join(",", workspaceIds),
+                                EXPIRATION, TimeUnit.SECONDS));
+                        return null;
+                    }
+                });
+            }
+            if (workspacesByUser.size() < misses.size()) {
+                log.warn("{} users have no workspaces", misses.size() - workspacesByUser.size());
+            }
+        }
+
+        return contexts;
+    }
+
     /**
      * Validates if a workspace belongs to a user
      * Uses Redis cache to improve performance
@@ -0,0 +1,6 @@
+-- Queue message id of the activity, used to make ingestion idempotent
+ALTER TABLE workspace.activity_log
+    ADD COLUMN message_id VARCHAR(64);
+
+ALTER TABLE workspace.activity_log
+    ADD CONSTRAINT uk_activity_log_message_id UNIQUE (message_id);
@@ -0,0 +1,21 @@
+-- Composite indexes matching the activity log searches: every search filters on workspace_id
+-- and reads newest first, cursor searches break ties on id
+CREATE INDEX idx_activity_log_workspace_created_at
+    ON workspace.activity_log (workspace_id, created_at DESC, id DESC);
+
+CREATE INDEX idx_activity_log_workspace_project_created_at
+    ON workspace.activity_log (workspace_id, project_id, created_at DESC, id DESC)
+    WHERE project_id IS NOT NULL;
+
+CREATE INDEX idx_activity_log_workspace_application_created_at
+    ON workspace.activity_log (workspace_id, application_id, created_at DESC, id DESC)
+    WHERE application_id IS NOT NULL;
+
+-- Role filter: jsonb_extract_path_text(variables, 'roleId') restricted to role activities
+CREATE INDEX idx_activity_log_workspace_role_id
+    ON workspace.activity_log (workspace_id, jsonb_extract_path_text(variables, 'roleId'), created_at DESC)
+    WHERE activity_type IN ('ROLE_CREATED', 'ROLE_STATUS_UPDATE');
+
+-- Time range scans across workspaces, rows are appended in created_at order
+CREATE INDEX idx_activity_log_created_at_brin
+    ON workspace.activity_log USING BRIN (created_at);
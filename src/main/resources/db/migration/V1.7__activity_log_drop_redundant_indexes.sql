@@ -0,0 +1,14 @@
+-- Covered by the composite indexes of V1.6
+DROP INDEX IF EXISTS workspace.idx_activity_log_workspace_id;
+DROP INDEX IF EXISTS workspace.idx_activity_log_project_id;
+DROP INDEX IF EXISTS workspace.idx_activity_log_application_id;
+DROP INDEX IF EXISTS workspace.idx_activity_log_created_at;
+
+-- Never filtered on by themselves
+DROP INDEX IF EXISTS workspace.idx_activity_log_activity_type;
+DROP INDEX IF EXISTS workspace.idx_activity_log_created_by;
+
+-- attachments and variables are never searched by content, the role lookup has its own
+-- expression index in V1.6
+DROP INDEX IF EXISTS workspace.idx_activity_log_attachments;
+DROP INDEX IF EXISTS workspace.idx_activity_log_variables;
@@ -0,0 +1,117 @@
+-- Monthly range partitioning of activity_log by created_at.
+-- Unique constraints of a partitioned table must contain the partition key, so the primary key
+-- and the message id constraint now include created_at. Ingestion stores the message's own
+-- creation time, which keeps redeliveries of a message on the same (message_id, created_at).
+--
+-- Runs outside a transaction (see the .conf file) so the copy does not hold locks on activity_log
+-- for its whole duration:
+-- 1. the partitioned table, its partitions and indexes are created empty
+-- 2. a trigger mirrors every write to activity_log into the new table from then on
+-- 3. existing rows are copied one day at a time, each day in its own transaction; copied rows are
+--    locked FOR SHARE, so a concurrent delete or update waits and its trigger sees the copy
+-- 4. a single short transaction swaps the tables
+-- Every step before the swap can be rerun, so a run that fails before it can be repaired and retried.
+CREATE TABLE IF NOT EXISTS workspace.activity_log_partitioned (
+    LIKE workspace.activity_log INCLUDING DEFAULTS,
+    CONSTRAINT pk_activity_log PRIMARY KEY (id, created_at),
+    CONSTRAINT uk_activity_log_message_id_created_at UNIQUE (message_id, created_at)
+) PARTITION BY RANGE (created_at);
+
+-- Catches rows outside every monthly partition
+CREATE TABLE IF NOT EXISTS workspace.activity_log_default
+    PARTITION OF workspace.activity_log_partitioned DEFAULT;
+
+-- One partition per month from the oldest row up to three months ahead
+DO $$
+DECLARE
+    month_start DATE;
+    last_month DATE := date_trunc('month', now() + INTERVAL '3 months')::date;
+BEGIN
+    SELECT COALESCE(date_trunc('month', MIN(created_at)), date_trunc('month', now()))::date
+    INTO month_start
+    FROM workspace.activity_log;
+
+    WHILE month_start <= last_month LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS workspace.%I PARTITION OF workspace.activity_log_partitioned FOR VALUES FROM (%L) TO (%L)',
+                       'activity_log_p' || to_char(month_start, 'YYYYMM'), month_start,
+                       (month_start + INTERVAL '1 month')::date);
+        month_start := (month_start + INTERVAL '1 month')::date;
+    END LOOP;
+END $$;
+
+-- Indexes of V1.6 and V1.7, created before the copy so the swap does not have to build them
+CREATE INDEX IF NOT EXISTS idx_activity_log_p_workspace_created_at
+    ON workspace.activity_log_partitioned (workspace_id, created_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_activity_log_p_workspace_project_created_at
+    ON workspace.activity_log_partitioned (workspace_id, project_id, created_at DESC, id DESC)
+    WHERE project_id IS NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_activity_log_p_workspace_application_created_at
+    ON workspace.activity_log_partitioned (workspace_id, application_id, created_at DESC, id DESC)
+    WHERE application_id IS NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_activity_log_p_workspace_role_id
+    ON workspace.activity_log_partitioned (workspace_id, jsonb_extract_path_text(variables, 'roleId'), created_at DESC)
+    WHERE activity_type IN ('ROLE_CREATED', 'ROLE_STATUS_UPDATE');
+
+CREATE INDEX IF NOT EXISTS idx_activity_log_p_created_at_brin
+    ON workspace.activity_log_partitioned USING BRIN (created_at);
+
+-- Mirrors writes that happen while the copy runs
+CREATE OR REPLACE FUNCTION workspace.activity_log_mirror() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        DELETE FROM workspace.activity_log_partitioned WHERE id = OLD.id AND created_at = OLD.created_at;
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        INSERT INTO workspace.activity_log_partitioned SELECT NEW.* ON CONFLICT DO NOTHING;
+    END IF;
+    RETURN NULL;
+END $$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS activity_log_mirror ON workspace.activity_log;
+CREATE TRIGGER activity_log_mirror
+    AFTER INSERT OR UPDATE OR DELETE ON workspace.activity_log
+    FOR EACH ROW EXECUTE FUNCTION workspace.activity_log_mirror();
+
+-- Copies existing rows one day per transaction
+DO $$
+DECLARE
+    day_start TIMESTAMP;
+    last_day TIMESTAMP;
+BEGIN
+    SELECT date_trunc('day', MIN(created_at)), date_trunc('day', MAX(created_at))
+    INTO day_start, last_day
+    FROM workspace.activity_log;
+
+    WHILE day_start <= last_day LOOP
+        INSERT INTO workspace.activity_log_partitioned
+        SELECT * FROM workspace.activity_log
+        WHERE created_at >= day_start AND created_at < day_start + INTERVAL '1 day'
+        FOR SHARE
+        ON CONFLICT DO NOTHING;
+        COMMIT;
+        day_start := day_start + INTERVAL '1 day';
+    END LOOP;
+END $$;
+
+-- Swaps the tables in one transaction; the exclusive lock is held only for the drop and renames
+DO $$
+BEGIN
+    LOCK TABLE workspace.activity_log IN ACCESS EXCLUSIVE MODE;
+    DROP TABLE workspace.activity_log;
+    ALTER TABLE workspace.activity_log_partitioned RENAME TO activity_log;
+    ALTER INDEX workspace.idx_activity_log_p_workspace_created_at
+        RENAME TO idx_activity_log_workspace_created_at;
+    ALTER INDEX workspace.idx_activity_log_p_workspace_project_created_at
+        RENAME TO idx_activity_log_workspace_project_created_at;
+    ALTER INDEX workspace.idx_activity_log_p_workspace_application_created_at
+        RENAME TO idx_activity_log_workspace_application_created_at;
+    ALTER INDEX workspace.idx_activity_log_p_workspace_role_id
+        RENAME TO idx_activity_log_workspace_role_id;
+    ALTER INDEX workspace.idx_activity_log_p_created_at_brin
+        RENAME TO idx_activity_log_created_at_brin;
+END $$;
+
+DROP FUNCTION workspace.activity_log_mirror();
@@ -0,0 +1,18 @@
+-- Number of activity logs per workspace, project, application, activity type and hour.
+-- Maintained by the activity log ingestion in the same statement as the insert, missing
+-- project and application ids are stored as empty strings so they can be part of the key.
+CREATE TABLE workspace.activity_log_hourly_count (
+    workspace_id VARCHAR(36) NOT NULL,
+    bucket TIMESTAMP NOT NULL,
+    project_id VARCHAR(36) NOT NULL DEFAULT '',
+    application_id VARCHAR(36) NOT NULL DEFAULT '',
+    activity_type VARCHAR(100) NOT NULL,
+    count BIGINT NOT NULL,
+    CONSTRAINT pk_activity_log_hourly_count PRIMARY KEY (workspace_id, bucket, project_id, application_id, activity_type)
+);
+
+INSERT INTO workspace.activity_log_hourly_count (workspace_id, bucket, project_id, application_id, activity_type, count)
+SELECT workspace_id, date_trunc('hour', created_at), COALESCE(project_id, ''), COALESCE(application_id, ''),
+       activity_type, count(*)
+FROM workspace.activity_log
+GROUP BY 1, 2, 3, 4, 5;
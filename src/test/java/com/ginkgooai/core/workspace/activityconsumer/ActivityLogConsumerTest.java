@@ -0,0 +1,131 @@
+package com.ginkgooai.core.workspace.activityconsumer;
+
+import com.ginkgooai.core.common.message.ActivityLogMessage;
+import com.ginkgooai.core.workspace.config.mq.ReliableQueue;
+import com.ginkgooai.core.workspace.config.properties.ActivityLogConsumerProperties;
+import com.ginkgooai.core.workspace.metrics.ActivityLogMetrics;
+import com.ginkgooai.core.workspace.service.ActivityLogService;
+import com.ginkgooai.core.workspace.service.WorkspaceContextService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Rounds whose enrichment fails are handled like batches that failed to persist
+ */
+class ActivityLogConsumerTest {
+
+    private static final String QUEUE = "activity_log_queue";
+
+    private final ReliableQueue queue = mock(ReliableQueue.class);
+
+    private final WorkspaceContextService workspaceContextService = mock(WorkspaceContextService.class);
+
+    private final ActivityLogService activityLogService = mock(ActivityLogService.class);
+
+    private final ActivityLogJournal journal = mock(ActivityLogJournal.class);
+
+    private final ActivityLogMessage message = message("m-1");
+
+    private ThreadPoolTaskExecutor workerExecutor;
+
+    private ActivityLogConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        ActivityLogConsumerProperties properties = new ActivityLogConsumerProperties();
+        properties.setBlockTimeout(20);
+        properties.setPollingInterval(1000);
+        workerExecutor = new ThreadPoolTaskExecutor();
+        workerExecutor.initialize();
+        consumer = new ActivityLogConsumer(queue, activityLogService, workspaceContextService, properties,
+                workerExecutor, new SimpleAsyncTaskExecutor(), new ActivityLogMetrics(new SimpleMeterRegistry()),
+                journal);
+
+        AtomicBoolean delivered = new AtomicBoolean();
+        when(queue.receive(eq(QUEUE), anyInt(), eq(ActivityLogMessage.class), any(Duration.class)))
+                .thenAnswer(invocation -> {
+                    if (delivered.compareAndSet(false, true)) {
+                        return List.of(message);
+                    }
+                    Thread.sleep(10);
+                    return List.of();
+                });
+    }
+
+    @AfterEach
+    void tearDown() {
+        consumer.stop();
+        workerExecutor.shutdown();
+    }
+
+    @Test
+    void returnsRoundToTheQueueAndBacksOffWhenRedisIsUnavailable() throws InterruptedException {
+        when(workspaceContextService.getUserWorkspaceContexts(anyCollection()))
+                .thenThrow(new RedisConnectionFailureException("down"));
+
+        consumer.start();
+
+        verify(queue, timeout(2000)).retry(QUEUE, List.of(message));
+        long polls = receives();
+        Thread.sleep(300);
+        // At most the receive that was already blocking when the pause began
+        assertThat(receives()).isLessThanOrEqualTo(polls + 1);
+        verify(activityLogService, never()).createLogs(anyList());
+        verify(queue, never()).ack(anyString(), anyCollection());
+    }
+
+    @Test
+    void leavesRoundForRedeliveryWhenEnrichmentFailsPermanently() throws InterruptedException {
+        when(workspaceContextService.getUserWorkspaceContexts(anyCollection()))
+                .thenThrow(new IllegalStateException("bug"));
+
+        consumer.start();
+
+        verify(workspaceContextService, timeout(2000)).getUserWorkspaceContexts(anyCollection());
+        long polls = receives();
+        Thread.sleep(300);
+        // Polling does not pause and the round is neither retried nor acknowledged
+        assertThat(receives()).isGreaterThan(polls + 1);
+        verify(queue, never()).retry(anyString(), anyCollection());
+        verify(queue, never()).ack(anyString(), anyCollection());
+    }
+
+    private long receives() {
+        return mockingDetails(queue).getInvocations().stream()
+                .filter(invocation -> invocation.getMethod().getName().equals("receive"))
+                .count();
+    }
+
+    private static ActivityLogMessage message(String msgId) {
+        ActivityLogMessage message = new ActivityLogMessage();
+        message.setMsgId(msgId);
+        message.setTimestamp(System.currentTimeMillis());
+        ReflectionTestUtils.setField(message, "activityType", "PROJECT_CREATED");
+        ReflectionTestUtils.setField(message, "createdBy", "user-1");
+        return message;
+    }
+}
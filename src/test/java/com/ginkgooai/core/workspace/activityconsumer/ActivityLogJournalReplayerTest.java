@@ -0,0 +1,110 @@
+package com.ginkgooai.core.workspace.activityconsumer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ginkgooai.core.common.enums.ActivityType;
+import com.ginkgooai.core.workspace.config.properties.ActivityLogJournalProperties;
+import com.ginkgooai.core.workspace.domain.ActivityLog;
+import com.ginkgooai.core.workspace.service.ActivityLogService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ActivityLogJournalReplayerTest {
+
+    @TempDir
+    Path directory;
+
+    private final ActivityLogService activityLogService = mock(ActivityLogService.class);
+
+    private ActivityLogJournal journal;
+
+    private ActivityLogJournalReplayer replayer;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        ActivityLogJournalProperties properties = new ActivityLogJournalProperties();
+        properties.setEnabled(true);
+        properties.setDirectory(directory.toString());
+        properties.setSegmentSize(4096);
+        journal = new ActivityLogJournal(properties, new ObjectMapper());
+        journal.open();
+        replayer = new ActivityLogJournalReplayer(journal, activityLogService);
+    }
+
+    @Test
+    void replaysAndDeletesSegments() throws IOException {
+        journal.append(List.of(log("m-1")));
+        journal.append(List.of(log("m-2")));
+        when(activityLogService.createLogs(anyList())).thenReturn(1);
+
+        replayer.replay();
+
+        verify(activityLogService, times(2)).createLogs(anyList());
+        assertThat(journal.getPendingBatches()).isZero();
+        assertThat(files()).isEmpty();
+    }
+
+    @Test
+    void keepsSegmentWhileTheDatabaseIsUnavailable() throws IOException {
+        journal.append(List.of(log("m-1")));
+        when(activityLogService.createLogs(anyList())).thenThrow(new QueryTimeoutException("timeout"));
+
+        replayer.replay();
+
+        assertThat(journal.getPendingBatches()).isEqualTo(1);
+        assertThat(files()).singleElement().satisfies(file -> assertThat(file.toString()).endsWith(".journal"));
+    }
+
+    @Test
+    void skipsRejectedBatchAndQuarantinesItsSegment() throws IOException {
+        journal.append(List.of(log("poison")));
+        journal.append(List.of(log("m-2")));
+        when(activityLogService.createLogs(argThat(batch -> batch != null && "poison".equals(batch.get(0).getMessageId()))))
+                .thenThrow(new DataIntegrityViolationException("value too long"));
+        when(activityLogService.createLogs(argThat(batch -> batch != null && "m-2".equals(batch.get(0).getMessageId()))))
+                .thenReturn(1);
+
+        replayer.replay();
+        journal.append(List.of(log("m-3")));
+        replayer.replay();
+
+        verify(activityLogService).createLogs(argThat(batch -> batch != null && "m-2".equals(batch.get(0).getMessageId())));
+        verify(activityLogService).createLogs(argThat(batch -> batch != null && "m-3".equals(batch.get(0).getMessageId())));
+        assertThat(journal.getPendingBatches()).isZero();
+        assertThat(files()).singleElement().satisfies(file -> assertThat(file.toString()).endsWith(".journal.bad"));
+    }
+
+    private List<Path> files() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.toList();
+        }
+    }
+
+    private static ActivityLog log(String messageId) {
+        return ActivityLog.builder()
+                .activityType(ActivityType.PROJECT_CREATED)
+                .description("{user} created project")
+                .workspaceId("ws-1")
+                .createdBy("user-1")
+                .messageId(messageId)
+                .createdAt(LocalDateTime.of(2024, 5, 1, 12, 30))
+                .build();
+    }
+}
@@ -0,0 +1,215 @@
+package com.ginkgooai.core.workspace.activityconsumer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ginkgooai.core.common.enums.ActivityType;
+import com.ginkgooai.core.workspace.config.properties.ActivityLogJournalProperties;
+import com.ginkgooai.core.workspace.domain.ActivityLog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ActivityLogJournalTest {
+
+    private static final int SEGMENT_SIZE = 4096;
+
+    @TempDir
+    Path directory;
+
+    private final ActivityLogJournalProperties properties = new ActivityLogJournalProperties();
+
+    private ActivityLogJournal journal;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        properties.setEnabled(true);
+        properties.setDirectory(directory.toString());
+        properties.setSegmentSize(SEGMENT_SIZE);
+        properties.setMaxSegments(2);
+        journal = open();
+    }
+
+    @Test
+    void readsBackAppendedBatches() throws IOException {
+        assertThat(journal.append(List.of(log("m-1"), log("m-2")))).isTrue();
+        assertThat(journal.append(List.of(log("m-3")))).isTrue();
+
+        Path segment = journal.nextSegment();
+        ActivityLogJournal.Contents contents = journal.read(segment);
+
+        assertThat(contents.damagedRecords()).isZero();
+        assertThat(contents.batches()).extracting(batch -> batch.stream().map(ActivityLog::getMessageId).toList())
+                .containsExactly(List.of("m-1", "m-2"), List.of("m-3"));
+        assertThat(contents.batches().get(0).get(0).getCreatedAt()).isEqualTo(LocalDateTime.of(2024, 5, 1, 12, 30));
+        assertThat(journal.getPendingBatches()).isEqualTo(2);
+    }
+
+    @Test
+    void recoversSegmentsAfterRestart() throws IOException {
+        journal.append(List.of(log("m-1")));
+
+        ActivityLogJournal reopened = open();
+
+        assertThat(reopened.getPendingBatches()).isEqualTo(1);
+        assertThat(reopened.read(reopened.nextSegment()).batches()).hasSize(1);
+    }
+
+    @Test
+    void ignoresTornRecordAtTheEnd() throws IOException {
+        journal.append(List.of(log("m-1")));
+        journal.append(List.of(log("m-2")));
+        Path segment = journal.nextSegment();
+        corruptPayload(segment, 1);
+
+        ActivityLogJournal.Contents contents = journal.read(segment);
+
+        assertThat(contents.batches()).singleElement()
+                .satisfies(batch -> assertThat(batch.get(0).getMessageId()).isEqualTo("m-1"));
+        assertThat(contents.damagedRecords()).isZero();
+    }
+
+    @Test
+    void skipsDamagedRecordAndKeepsReading() throws IOException {
+        journal.append(List.of(log("m-1")));
+        journal.append(List.of(log("m-2")));
+        journal.append(List.of(log("m-3")));
+        Path segment = journal.nextSegment();
+        corruptPayload(segment, 1);
+
+        ActivityLogJournal.Contents contents = journal.read(segment);
+
+        assertThat(contents.batches()).extracting(batch -> batch.get(0).getMessageId()).containsExactly("m-1", "m-3");
+        assertThat(contents.damagedRecords()).isEqualTo(1);
+    }
+
+    @Test
+    void skipsBatchThatCannotBeDecoded() throws IOException {
+        journal.append(List.of(log("m-1")));
+        journal.append(List.of(log("m-2")));
+        Path segment = journal.nextSegment();
+        replaceInPayload(segment, 0, "PROJECT_CREATED", "NO_SUCH_TYPE_XX");
+
+        ActivityLogJournal.Contents contents = journal.read(segment);
+
+        assertThat(contents.batches()).extracting(batch -> batch.get(0).getMessageId()).containsExactly("m-2");
+        assertThat(contents.damagedRecords()).isEqualTo(1);
+    }
+
+    @Test
+    void deletesReplayedSegmentAndQuarantinesDamagedOne() throws IOException {
+        journal.append(List.of(log("m-1")));
+        Path replayed = journal.nextSegment();
+        journal.completed(replayed, 1, false);
+        journal.append(List.of(log("m-2")));
+        Path damaged = journal.nextSegment();
+        journal.completed(damaged, 1, true);
+
+        assertThat(replayed).doesNotExist();
+        assertThat(damaged).doesNotExist();
+        assertThat(damaged.resolveSibling(damaged.getFileName() + ".bad")).exists();
+        assertThat(journal.getPendingBatches()).isZero();
+        assertThat(journal.nextSegment()).isNull();
+        assertThat(open().getSegmentCount()).isZero();
+    }
+
+    @Test
+    void neverKeepsMoreThanMaxSegments() throws IOException {
+        List<ActivityLog> batch = List.of(log("m-1", "x".repeat(SEGMENT_SIZE / 2)));
+
+        assertThat(journal.append(batch)).isTrue();
+        assertThat(journal.append(batch)).isTrue();
+        assertThat(journal.append(batch)).isFalse();
+
+        assertThat(journal.getSegmentCount()).isEqualTo(2);
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files).hasSize(2);
+        }
+        assertThat(journal.getPendingBatches()).isEqualTo(2);
+    }
+
+    @Test
+    void refusesBatchLargerThanASegment() {
+        assertThat(journal.append(List.of(log("m-1", "x".repeat(SEGMENT_SIZE))))).isFalse();
+        assertThat(journal.getSegmentCount()).isZero();
+    }
+
+    private ActivityLogJournal open() throws IOException {
+        ActivityLogJournal opened = new ActivityLogJournal(properties, new ObjectMapper());
+        opened.open();
+        return opened;
+    }
+
+    /**
+     * Flip a payload byte of the record at the given index, so that its checksum no longer matches
+     */
+    private static void corruptPayload(Path segment, int record) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long offset = recordOffset(channel, record);
+            ByteBuffer payload = ByteBuffer.allocate(1);
+            channel.read(payload, offset + 8);
+            payload.put(0, (byte) (payload.get(0) ^ 0x7f)).flip();
+            channel.write(payload, offset + 8);
+        }
+    }
+
+    /**
+     * Replace text of the same length in the payload of the record at the given index and fix up its checksum,
+     * so that the record stays intact but no longer decodes
+     */
+    private static void replaceInPayload(Path segment, int record, String from, String to) throws IOException {
+        byte[] bytes = Files.readAllBytes(segment);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int offset;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            offset = (int) recordOffset(channel, record);
+        }
+        int length = buffer.getInt(offset);
+        byte[] payload = new String(bytes, offset + 8, length, StandardCharsets.UTF_8).replace(from, to)
+                .getBytes(StandardCharsets.UTF_8);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        buffer.putInt(offset + 4, (int) crc.getValue());
+        buffer.put(offset + 8, payload);
+        Files.write(segment, bytes);
+    }
+
+    private static long recordOffset(FileChannel channel, int record) throws IOException {
+        long offset = 0;
+        ByteBuffer header = ByteBuffer.allocate(4);
+        for (int i = 0; i < record; i++) {
+            header.clear();
+            channel.read(header, offset);
+            header.flip();
+            offset += 8 + header.getInt();
+        }
+        return offset;
+    }
+
+    private static ActivityLog log(String messageId) {
+        return log(messageId, "{user} created project");
+    }
+
+    private static ActivityLog log(String messageId, String description) {
+        return ActivityLog.builder()
+                .activityType(ActivityType.PROJECT_CREATED)
+                .description(description)
+                .workspaceId("ws-1")
+                .createdBy("user-1")
+                .messageId(messageId)
+                .createdAt(LocalDateTime.of(2024, 5, 1, 12, 30))
+                .build();
+    }
+}
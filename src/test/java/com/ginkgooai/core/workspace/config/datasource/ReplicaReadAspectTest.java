@@ -0,0 +1,160 @@
+package com.ginkgooai.core.workspace.config.datasource;
+
+import com.ginkgooai.core.workspace.domain.ActivityLog;
+import com.ginkgooai.core.workspace.domain.Workspace;
+import com.ginkgooai.core.workspace.repository.ActivityLogBulkRepository;
+import com.ginkgooai.core.workspace.repository.ActivityLogQueryRepository;
+import com.ginkgooai.core.workspace.repository.ActivityLogRepository;
+import com.ginkgooai.core.workspace.repository.WorkspaceRepository;
+import com.ginkgooai.core.workspace.service.ActivityLogService;
+import com.ginkgooai.core.workspace.service.UserInfoService;
+import com.ginkgooai.core.workspace.service.WorkspaceContextService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Read-only repository calls only reach a replica from {@link ReadFromReplica} methods. The data source chain is
+ * wired as in {@link ReplicaDataSourceConfig}; repositories are stubbed with a read-only transaction issuing one
+ * query, like SimpleJpaRepository does.
+ */
+class ReplicaReadAspectTest {
+
+    private final DataSource primary = mock(DataSource.class);
+
+    private DataSource replica;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        Connection primaryConnection = mock(Connection.class);
+        when(primaryConnection.createStatement()).thenReturn(mock(Statement.class));
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        replica = ReplicaRoutingDataSourceTest.replica(0);
+
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, Map.of("replica-0", replica), 1000);
+        routing.afterPropertiesSet();
+        routing.checkReplicas();
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(routing);
+        dataSource.setDefaultAutoCommit(true);
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+
+        readOnlyTransaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        readOnlyTransaction.setReadOnly(true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        clearInvocations(primary, replica);
+    }
+
+    @Test
+    void workspaceContextIsResolvedOnThePrimary() throws SQLException {
+        WorkspaceRepository workspaceRepository = mock(WorkspaceRepository.class);
+        when(workspaceRepository.findByCreatedBy(anyString()))
+                .thenAnswer(invocation -> query(() -> List.of(workspace("ws-1", invocation.getArgument(0)))));
+        RedisTemplate<String, String> redisTemplate = redisTemplate();
+        WorkspaceContextService service = proxy(new WorkspaceContextService(redisTemplate, workspaceRepository));
+
+        assertThat(service.validateUserWorkspaceAccess("user-1", "ws-1")).isTrue();
+
+        verify(primary).getConnection();
+        verify(replica, never()).getConnection();
+    }
+
+    @Test
+    void batchedWorkspaceContextsAreResolvedOnThePrimary() throws SQLException {
+        WorkspaceRepository workspaceRepository = mock(WorkspaceRepository.class);
+        when(workspaceRepository.findByCreatedByIn(anyCollection()))
+                .thenAnswer(invocation -> query(() -> List.of(workspace("ws-1", "user-1"))));
+        RedisTemplate<String, String> redisTemplate = redisTemplate();
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenReturn(Arrays.asList(null, null));
+        WorkspaceContextService service = proxy(new WorkspaceContextService(redisTemplate, workspaceRepository));
+
+        assertThat(service.getUserWorkspaceContexts(List.of("user-1"))).containsEntry("user-1", "ws-1");
+
+        verify(primary).getConnection();
+        verify(replica, never()).getConnection();
+    }
+
+    @Test
+    void activityLogReadsUseTheReplica() throws SQLException {
+        ActivityLogRepository activityLogRepository = mock(ActivityLogRepository.class);
+        when(activityLogRepository.findById(anyString()))
+                .thenAnswer(invocation -> query(() -> Optional.of(ActivityLog.builder().id("log-1").build())));
+        ActivityLogService service = proxy(new ActivityLogService(activityLogRepository,
+                mock(ActivityLogBulkRepository.class), mock(ActivityLogQueryRepository.class),
+                mock(CacheManager.class), mock(UserInfoService.class)));
+
+        assertThat(service.getLogById("log-1").getId()).isEqualTo("log-1");
+
+        verify(replica).getConnection();
+        verify(primary, never()).getConnection();
+        assertThat(ReplicaRoutingDataSource.isReplicaReadAllowed()).isFalse();
+    }
+
+    @Test
+    void readOnlyTransactionsOutsideReplicaReadsUseThePrimary() throws SQLException {
+        query(() -> null);
+
+        verify(primary).getConnection();
+        verify(replica, never()).getConnection();
+    }
+
+    private <T> T query(Supplier<T> result) {
+        return readOnlyTransaction.execute(status -> {
+            jdbcTemplate.execute("SELECT 1");
+            return result.get();
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static RedisTemplate<String, String> redisTemplate() {
+        RedisTemplate<String, String> redisTemplate = mock(RedisTemplate.class);
+        when(redisTemplate.opsForValue()).thenReturn(mock(ValueOperations.class));
+        return redisTemplate;
+    }
+
+    private static <T> T proxy(T target) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new ReplicaReadAspect());
+        return factory.getProxy();
+    }
+
+    private static Workspace workspace(String id, String createdBy) {
+        Workspace workspace = new Workspace();
+        workspace.setId(id);
+        workspace.setCreatedBy(createdBy);
+        return workspace;
+    }
+}
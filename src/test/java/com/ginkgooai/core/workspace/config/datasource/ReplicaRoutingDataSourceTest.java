@@ -0,0 +1,127 @@
+package com.ginkgooai.core.workspace.config.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReplicaRoutingDataSourceTest {
+
+    private static final long MAX_LAG = 1000;
+
+    private final DataSource primary = mock(DataSource.class);
+
+    @AfterEach
+    void tearDown() {
+        ReplicaRoutingDataSource.setReplicaReadAllowed(false);
+    }
+
+    @Test
+    void readsFromPrimaryUntilReplicasWereChecked() throws SQLException {
+        ReplicaRoutingDataSource routing = routing(Map.of("replica-0", replica(0)));
+        ReplicaRoutingDataSource.setReplicaReadAllowed(true);
+
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+    }
+
+    @Test
+    void readsFromPrimaryOutsideReplicaReads() throws SQLException {
+        ReplicaRoutingDataSource routing = routing(Map.of("replica-0", replica(0)));
+
+        routing.checkReplicas();
+
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+    }
+
+    @Test
+    void spreadsReadsOverHealthyReplicas() throws SQLException {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-0", replica(0));
+        replicas.put("replica-1", replica(MAX_LAG));
+        ReplicaRoutingDataSource routing = routing(replicas);
+
+        routing.checkReplicas();
+        ReplicaRoutingDataSource.setReplicaReadAllowed(true);
+
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo("replica-0");
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo("replica-1");
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo("replica-0");
+    }
+
+    @Test
+    void skipsLaggingAndFailingReplicas() throws SQLException {
+        DataSource failing = mock(DataSource.class);
+        when(failing.getConnection()).thenThrow(new SQLException("connection refused"));
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-0", replica(MAX_LAG + 1));
+        replicas.put("replica-1", failing);
+        replicas.put("replica-2", replica(10));
+        ReplicaRoutingDataSource routing = routing(replicas);
+
+        routing.checkReplicas();
+        ReplicaRoutingDataSource.setReplicaReadAllowed(true);
+
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo("replica-2");
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo("replica-2");
+    }
+
+    @Test
+    void fallsBackToPrimaryWhenNoReplicaIsHealthy() throws SQLException {
+        ReplicaRoutingDataSource routing = routing(Map.of("replica-0", replica(MAX_LAG * 10)));
+
+        routing.checkReplicas();
+        ReplicaRoutingDataSource.setReplicaReadAllowed(true);
+
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+    }
+
+    @Test
+    void handsOutConnectionsOfTheChosenReplica() throws SQLException {
+        DataSource replica = replica(0);
+        ReplicaRoutingDataSource routing = routing(Map.of("replica-0", replica));
+        routing.afterPropertiesSet();
+        Connection replicaConnection = replica.getConnection();
+        Connection primaryConnection = mock(Connection.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        ReplicaRoutingDataSource.setReplicaReadAllowed(true);
+
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+        routing.checkReplicas();
+        assertThat(routing.getConnection()).isSameAs(replicaConnection);
+    }
+
+    private ReplicaRoutingDataSource routing(Map<String, DataSource> replicas) {
+        return new ReplicaRoutingDataSource(primary, replicas, MAX_LAG);
+    }
+
+    /**
+     * Replica whose lag query answers the given lag in milliseconds
+     */
+    static DataSource replica(double lag) throws SQLException {
+        ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+        when(metaData.getColumnCount()).thenReturn(1);
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.next()).thenReturn(true, false);
+        when(rs.getMetaData()).thenReturn(metaData);
+        when(rs.getDouble(1)).thenReturn(lag);
+        Statement statement = mock(Statement.class);
+        when(statement.executeQuery(anyString())).thenReturn(rs);
+        Connection connection = mock(Connection.class);
+        when(connection.createStatement()).thenReturn(statement);
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        return dataSource;
+    }
+}
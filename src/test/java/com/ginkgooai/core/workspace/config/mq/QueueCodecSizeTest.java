@@ -0,0 +1,112 @@
+package com.ginkgooai.core.workspace.config.mq;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.ginkgooai.core.common.message.ActivityLogMessage;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.redisson.client.codec.Codec;
+import org.redisson.codec.JsonJacksonCodec;
+import org.redisson.codec.Kryo5Codec;
+import org.redisson.config.Config;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Encoded size of a typical activity log message with the default queue codec and the alternatives that were
+ * considered for it. The default codec is kept: activity logs are produced by other services with their default
+ * codec, so a different codec here would only break decoding, and compressing messages of this size gains little.
+ */
+@Slf4j
+class QueueCodecSizeTest {
+
+    @Test
+    void defaultCodecIsTheMostCompactCodecProducersShare() throws IOException {
+        ActivityLogMessage message = message();
+        // Redisson.create works on a copy of the config, which is where the default codec is filled in
+        Codec defaultCodec = new Config(new Config()).getCodec();
+
+        int kryo = size(defaultCodec, message);
+        int registeredKryo = size(new RegisteredKryo5Codec(), message);
+        int json = size(new JsonJacksonCodec(new ObjectMapper().registerModule(new JavaTimeModule())), message);
+        int deflatedKryo = deflated(defaultCodec, message);
+        log.info("Bytes per activity log message: kryo={}, kryo with registered classes={}, json={}, deflated kryo={}",
+                kryo, registeredKryo, json, deflatedKryo);
+
+        assertThat(defaultCodec).isInstanceOf(Kryo5Codec.class);
+        assertThat(json).isGreaterThan(kryo);
+        // Registering classes only drops their names, which requires every producer to register them identically
+        assertThat(kryo - registeredKryo).isLessThan(kryo / 4);
+        // Field values are mostly random ids, which do not compress
+        assertThat(deflatedKryo).isGreaterThan(kryo * 3 / 4);
+    }
+
+    private static int size(Codec codec, ActivityLogMessage message) throws IOException {
+        ByteBuf encoded = codec.getValueEncoder().encode(message);
+        try {
+            assertThat(codec.getValueDecoder().decode(encoded.duplicate(), null))
+                    .usingRecursiveComparison().isEqualTo(message);
+            return encoded.readableBytes();
+        } finally {
+            encoded.release();
+        }
+    }
+
+    private static int deflated(Codec codec, ActivityLogMessage message) throws IOException {
+        ByteBuf encoded = codec.getValueEncoder().encode(message);
+        try {
+            Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+            deflater.setInput(ByteBufUtil.getBytes(encoded));
+            deflater.finish();
+            byte[] buffer = new byte[encoded.readableBytes() * 2];
+            int size = deflater.deflate(buffer);
+            deflater.end();
+            return size;
+        } finally {
+            encoded.release();
+        }
+    }
+
+    static ActivityLogMessage message() {
+        ActivityLogMessage message = new ActivityLogMessage();
+        message.setMsgId("6f1c2b9e-52c4-4f6e-9a59-0d8f3f1b7a21");
+        message.setTimestamp(1714566600000L);
+        ReflectionTestUtils.setField(message, "workspaceId", "0b7d5e0c-3c8e-4f3a-9d0e-5a1f6c2b8e47");
+        ReflectionTestUtils.setField(message, "projectId", "c3a9f1d2-7e4b-4b8a-a6c5-2d9e0f1b3c58");
+        ReflectionTestUtils.setField(message, "applicationId", "e8d2b7c4-1f3a-4c9e-b5d6-7a0f2e9c1b63");
+        ReflectionTestUtils.setField(message, "activityType", "PROJECT_CREATED");
+        ReflectionTestUtils.setField(message, "createdBy", "9a4e6c1f-2b8d-4e7a-8c3f-5d0b1e9a7c24");
+        ReflectionTestUtils.setField(message, "createdAt", LocalDateTime.of(2024, 5, 1, 12, 30));
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("projectName", "Apollo migration");
+        variables.put("applicationName", "Ann Smith");
+        variables.put("status", "SHORTLISTED");
+        ReflectionTestUtils.setField(message, "variables", variables);
+        return message;
+    }
+
+    /**
+     * Kryo codec with the message classes registered, so their names are not written into every message
+     */
+    static class RegisteredKryo5Codec extends Kryo5Codec {
+
+        @Override
+        protected Kryo createKryo(ClassLoader classLoader) {
+            Kryo kryo = super.createKryo(classLoader);
+            kryo.register(ActivityLogMessage.class);
+            kryo.register(HashMap.class);
+            kryo.register(LocalDateTime.class);
+            return kryo;
+        }
+    }
+}
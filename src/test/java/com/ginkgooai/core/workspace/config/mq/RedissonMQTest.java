@@ -0,0 +1,83 @@
+package com.ginkgooai.core.workspace.config.mq;
+
+import com.ginkgooai.core.common.message.ActivityLogMessage;
+import com.ginkgooai.core.workspace.config.properties.QueueProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.BatchResult;
+import org.redisson.api.RBatch;
+import org.redisson.api.RMapAsync;
+import org.redisson.api.RScoredSortedSetAsync;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RedissonMQTest {
+
+    private static final String QUEUE = "activity_log_queue";
+
+    private static final byte[] PAYLOAD = "m-1".getBytes(StandardCharsets.UTF_8);
+
+    private final RedissonClient redissonClient = mock(RedissonClient.class);
+
+    private final RScript script = mock(RScript.class);
+
+    private final RScoredSortedSetAsync<Object> inflight = mock(RScoredSortedSetAsync.class);
+
+    private final QueueProperties queueProperties = new QueueProperties();
+
+    private final ActivityLogMessage message = new ActivityLogMessage();
+
+    private RedissonMQ queue;
+
+    @BeforeEach
+    void setUp() {
+        message.setMsgId("m-1");
+        Codec codec = mock(Codec.class);
+        when(codec.getValueDecoder()).thenReturn((buffer, state) -> message);
+        queue = new RedissonMQ(redissonClient, queueProperties, codec);
+
+        when(redissonClient.getScript(any(Codec.class))).thenReturn(script);
+        when(script.eval(any(RScript.Mode.class), anyString(), any(RScript.ReturnType.class), anyList(), any(Object[].class)))
+                .thenReturn(List.of(PAYLOAD), List.of());
+        RBatch batch = mock(RBatch.class);
+        when(redissonClient.createBatch()).thenReturn(batch);
+        doReturn(mock(RMapAsync.class)).when(batch).getMap(anyString(), any(Codec.class));
+        doReturn(inflight).when(batch).getScoredSortedSet(anyString(), any(Codec.class));
+        doReturn(new BatchResult<>(List.of(1L), 0)).when(batch).execute();
+    }
+
+    @Test
+    void ackRemovesReceivedMessageFromTheInFlightSet() {
+        assertThat(queue.receive(QUEUE, 10, ActivityLogMessage.class)).containsExactly(message);
+
+        queue.ack(QUEUE, List.of(message));
+
+        verify(inflight).removeAllAsync(List.of(PAYLOAD));
+    }
+
+    @Test
+    void forgetsReceiptsOnceTheVisibilityTimeoutHasPassed() {
+        queueProperties.setVisibilityTimeout(0);
+        assertThat(queue.receive(QUEUE, 10, ActivityLogMessage.class)).containsExactly(message);
+        assertThat(queue.receive(QUEUE, 10, ActivityLogMessage.class)).isEmpty();
+
+        queue.ack(QUEUE, List.of(message));
+
+        verify(inflight, never()).removeAllAsync(anyCollection());
+    }
+}
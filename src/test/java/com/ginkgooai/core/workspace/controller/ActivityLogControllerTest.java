@@ -0,0 +1,58 @@
+package com.ginkgooai.core.workspace.controller;
+
+import com.ginkgooai.core.common.utils.ContextUtils;
+import com.ginkgooai.core.workspace.config.properties.ActivityLogSearchProperties;
+import com.ginkgooai.core.workspace.service.ActivityLogExportService;
+import com.ginkgooai.core.workspace.service.ActivityLogService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * Async request timeouts of the activity log endpoints
+ */
+class ActivityLogControllerTest {
+
+    private static final long DEFAULT_TIMEOUT = 30_000;
+
+    private final ActivityLogSearchProperties properties = new ActivityLogSearchProperties();
+
+    private MockedStatic<ContextUtils> context;
+
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        context = mockStatic(ContextUtils.class);
+        context.when(ContextUtils::getWorkspaceId).thenReturn("ws-1");
+        properties.setExportTimeout(7_200_000);
+        mvc = MockMvcBuilders.standaloneSetup(new ActivityLogController(mock(ActivityLogService.class),
+                        mock(ActivityLogExportService.class), properties))
+                .setAsyncRequestTimeout(DEFAULT_TIMEOUT)
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        context.close();
+    }
+
+    @Test
+    void exportStreamsWithItsOwnTimeout() throws Exception {
+        MvcResult result = mvc.perform(get("/activity-logs/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        assertThat(result.getRequest().getAsyncContext().getTimeout()).isEqualTo(properties.getExportTimeout());
+    }
+}
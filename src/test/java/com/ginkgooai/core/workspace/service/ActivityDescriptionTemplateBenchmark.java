@@ -0,0 +1,75 @@
+package com.ginkgooai.core.workspace.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering an activity description with a compiled template against the chained String.replace it replaced.
+ * Not run by the build, start it from the test classpath through {@link #main(String[])}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ActivityDescriptionTemplateBenchmark {
+
+    private final String template = "{user} moved {applicationName} of {projectName} from {oldStatus} to {newStatus}";
+
+    private final Map<String, Object> variables = Map.of(
+            "user", "Ann Smith",
+            "applicationName", "Lead actor",
+            "projectName", "Apollo migration",
+            "oldStatus", "SUBMITTED",
+            "newStatus", "SHORTLISTED");
+
+    private final StringBuilder page = new StringBuilder(256);
+
+    @Benchmark
+    public String replaceLoop() {
+        String description = template;
+        for (String variable : variables.keySet()) {
+            Object value = variables.get(variable);
+            if (value != null) {
+                description = description.replace("{" + variable + "}", value.toString());
+            }
+        }
+        return description;
+    }
+
+    @Benchmark
+    public String compiledTemplate() {
+        return ActivityDescriptionTemplate.of(template).render(variables);
+    }
+
+    /**
+     * Search pages render every row into one reused builder
+     */
+    @Benchmark
+    public int compiledTemplateReusedBuilder() {
+        page.setLength(0);
+        ActivityDescriptionTemplate.of(template).renderTo(variables, page);
+        return page.length();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ActivityDescriptionTemplateBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,87 @@
+package com.ginkgooai.core.workspace.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ActivityDescriptionTemplateTest {
+
+    @Test
+    void replacesEveryPlaceholder() {
+        String rendered = ActivityDescriptionTemplate.of("{user} created project {projectName}")
+                .render(Map.of("user", "Ann", "projectName", "Apollo"));
+
+        assertThat(rendered).isEqualTo("Ann created project Apollo");
+    }
+
+    @Test
+    void keepsPlaceholderOfMissingOrNullVariable() {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("user", "Ann");
+        variables.put("role", null);
+
+        String rendered = ActivityDescriptionTemplate.of("{user} gave {role} to {member}").render(variables);
+
+        assertThat(rendered).isEqualTo("Ann gave {role} to {member}");
+    }
+
+    @Test
+    void keepsTemplateWithoutVariables() {
+        assertThat(ActivityDescriptionTemplate.of("{user} left").render(null)).isEqualTo("{user} left");
+    }
+
+    @Test
+    void ignoresVariablesWithoutPlaceholder() {
+        assertThat(ActivityDescriptionTemplate.of("{user} left").render(Map.of("user", "Ann", "extra", "x")))
+                .isEqualTo("Ann left");
+    }
+
+    @Test
+    void treatsOnlyInnermostBracesAsPlaceholder() {
+        assertThat(ActivityDescriptionTemplate.of("{a {user}} end").render(Map.of("user", "Ann")))
+                .isEqualTo("{a Ann} end");
+    }
+
+    @Test
+    void keepsUnclosedBraceAsLiteral() {
+        assertThat(ActivityDescriptionTemplate.of("{user} invited {member").render(Map.of("user", "Ann", "member", "Bob")))
+                .isEqualTo("Ann invited {member");
+    }
+
+    @Test
+    void keepsEmptyBracesAsLiteral() {
+        assertThat(ActivityDescriptionTemplate.of("{}{user}{}").render(Map.of("user", "Ann", "", "x")))
+                .isEqualTo("{}Ann{}");
+    }
+
+    @Test
+    void doesNotExpandPlaceholdersInsideValues() {
+        assertThat(ActivityDescriptionTemplate.of("{user} renamed {projectName}")
+                .render(Map.of("user", "{projectName}", "projectName", "Apollo")))
+                .isEqualTo("{projectName} renamed Apollo");
+    }
+
+    @Test
+    void rendersLiteralTemplateAsIs() {
+        assertThat(ActivityDescriptionTemplate.of("Workspace created").render(Map.of("user", "Ann")))
+                .isEqualTo("Workspace created");
+        assertThat(ActivityDescriptionTemplate.of("").render(Map.of())).isEmpty();
+    }
+
+    @Test
+    void appendsToGivenBuffer() {
+        StringBuilder out = new StringBuilder("> ");
+
+        ActivityDescriptionTemplate.of("{user} joined").renderTo(Map.of("user", "Ann"), out);
+
+        assertThat(out).hasToString("> Ann joined");
+    }
+
+    @Test
+    void reusesCompiledTemplate() {
+        assertThat(ActivityDescriptionTemplate.of("{user} joined")).isSameAs(ActivityDescriptionTemplate.of("{user} joined"));
+    }
+}
@@ -0,0 +1,68 @@
+package com.ginkgooai.core.workspace.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ActivityLogCursorTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 5, 1, 12, 30);
+
+    @Test
+    void roundTripsCreationTimeAndId() {
+        ActivityLogCursor cursor = new ActivityLogCursor(CREATED_AT.plusNanos(123_456_789), "log-1");
+
+        assertThat(ActivityLogCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void keepsLogsCreatedAtTheSameTimeApart() {
+        ActivityLogCursor first = new ActivityLogCursor(CREATED_AT, "0b7d5e0c-3c8e-4f3a-9d0e-5a1f6c2b8e47");
+        ActivityLogCursor second = new ActivityLogCursor(CREATED_AT, "0b7d5e0c-3c8e-4f3a-9d0e-5a1f6c2b8e48");
+
+        assertThat(first.encode()).isNotEqualTo(second.encode());
+        assertThat(ActivityLogCursor.decode(first.encode())).isEqualTo(first);
+        assertThat(ActivityLogCursor.decode(second.encode())).isEqualTo(second);
+    }
+
+    @Test
+    void keepsSeparatorInsideTheId() {
+        ActivityLogCursor cursor = new ActivityLogCursor(CREATED_AT, "log|1");
+
+        assertThat(ActivityLogCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void encodesUrlSafe() {
+        assertThat(new ActivityLogCursor(CREATED_AT.plusNanos(1), "log?/+1").encode()).matches("[A-Za-z0-9_-]+");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "2024-05-01T12:30", "2024-05-01T12:30|", "|log-1", "yesterday|log-1"})
+    void rejectsMalformedContent(String value) {
+        String cursor = Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+
+        assertBadRequest(cursor);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"not base64!", "abc=d", "%%%"})
+    void rejectsMalformedEncoding(String cursor) {
+        assertBadRequest(cursor);
+    }
+
+    private static void assertBadRequest(String cursor) {
+        assertThatThrownBy(() -> ActivityLogCursor.decode(cursor))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+    }
+}
@@ -0,0 +1,162 @@
+package com.ginkgooai.core.workspace.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ginkgooai.core.workspace.config.properties.ActivityLogSearchProperties;
+import com.ginkgooai.core.workspace.dto.request.ActivityQueryRequest;
+import com.ginkgooai.core.workspace.dto.request.ExportFormat;
+import com.ginkgooai.core.workspace.repository.ActivityLogQueryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ActivityLogExportServiceTest {
+
+    private static final String HEADER = "id,activity_type,description,workspace_id,project_id,application_id,"
+            + "created_by,created_at,variables,attachments\n";
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 5, 1, 12, 30);
+
+    private final ActivityLogQueryRepository repository = mock(ActivityLogQueryRepository.class);
+
+    private ActivityLogExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        exportService = new ActivityLogExportService(repository, new ActivityLogSearchProperties(), new ObjectMapper(),
+                transactionManager);
+    }
+
+    @Test
+    void writesPlainFieldsUnquoted() throws Exception {
+        String csv = exportCsv(row("log-1", "PROJECT_CREATED", "{user} created project", null, "{}"));
+
+        assertThat(csv).isEqualTo(HEADER
+                + "log-1,PROJECT_CREATED,{user} created project,ws-1,,,user-1,2024-05-01T12:30,{},\n");
+    }
+
+    @Test
+    void quotesFieldsWithSeparatorsQuotesAndLineBreaks() throws Exception {
+        String csv = exportCsv(
+                row("log-1", "A", "one, two", null, null),
+                row("log-2", "A", "say \"hi\"", null, null),
+                row("log-3", "A", "first\nsecond", null, null),
+                row("log-4", "A", "first\r\nsecond", null, null));
+
+        assertThat(csv.substring(HEADER.length())).isEqualTo(
+                "log-1,A,\"one, two\",ws-1,,,user-1,2024-05-01T12:30,,\n"
+                        + "log-2,A,\"say \"\"hi\"\"\",ws-1,,,user-1,2024-05-01T12:30,,\n"
+                        + "log-3,A,\"first\nsecond\",ws-1,,,user-1,2024-05-01T12:30,,\n"
+                        + "log-4,A,\"first\r\nsecond\",ws-1,,,user-1,2024-05-01T12:30,,\n");
+    }
+
+    @Test
+    void quotesJsonColumnsContainingQuotesAndCommas() throws Exception {
+        String csv = exportCsv(row("log-1", "A", "d", null, "{\"user\":\"Ann\",\"n\":1}"));
+
+        assertThat(csv).endsWith(",\"{\"\"user\"\":\"\"Ann\"\",\"\"n\"\":1}\",\n");
+    }
+
+    @Test
+    void writesNullsAsEmptyFieldsAndEmptyStringsAsIs() throws Exception {
+        String csv = exportCsv(row("log-1", "A", "", null, null));
+
+        assertThat(csv.substring(HEADER.length())).isEqualTo("log-1,A,,ws-1,,,user-1,2024-05-01T12:30,,\n");
+    }
+
+    @Test
+    void prefixesFieldsSpreadsheetsWouldEvaluate() throws Exception {
+        String csv = exportCsv(
+                row("log-1", "A", "=HYPERLINK(\"http://x\")", null, null),
+                row("log-2", "A", "+1", null, null),
+                row("log-3", "A", "-1", null, null),
+                row("log-4", "A", "@SUM(A1)", null, null),
+                row("log-5", "A", "\tcmd", null, null),
+                row("log-6", "A", "a=b", null, null));
+
+        assertThat(csv.substring(HEADER.length())).isEqualTo(
+                "log-1,A,\"'=HYPERLINK(\"\"http://x\"\")\",ws-1,,,user-1,2024-05-01T12:30,,\n"
+                        + "log-2,A,'+1,ws-1,,,user-1,2024-05-01T12:30,,\n"
+                        + "log-3,A,'-1,ws-1,,,user-1,2024-05-01T12:30,,\n"
+                        + "log-4,A,'@SUM(A1),ws-1,,,user-1,2024-05-01T12:30,,\n"
+                        + "log-5,A,'\tcmd,ws-1,,,user-1,2024-05-01T12:30,,\n"
+                        + "log-6,A,a=b,ws-1,,,user-1,2024-05-01T12:30,,\n");
+    }
+
+    @Test
+    void writesNdjsonWithRawJsonColumns() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = exportService.export("ws-1", ActivityQueryRequest.builder().build(), ExportFormat.NDJSON,
+                stream(List.of(row("log-1", "A", "line \"1\"\n", "proj-1", "{\"a\":[1,2]}"),
+                        row("log-2", "B", "d", null, null)), out));
+
+        assertThat(rows).isEqualTo(2);
+        // Every line is a JSON document of its own, without a separator before the next one
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("{\"id\":\"log-1\",\"activity_type\":\"A\","
+                + "\"description\":\"line \\\"1\\\"\\n\",\"workspace_id\":\"ws-1\",\"project_id\":\"proj-1\","
+                + "\"application_id\":null,\"created_by\":\"user-1\",\"created_at\":\"2024-05-01T12:30\","
+                + "\"variables\":{\"a\":[1,2]},\"attachments\":null}\n"
+                + "{\"id\":\"log-2\",\"activity_type\":\"B\",\"description\":\"d\",\"workspace_id\":\"ws-1\","
+                + "\"project_id\":null,\"application_id\":null,\"created_by\":\"user-1\","
+                + "\"created_at\":\"2024-05-01T12:30\",\"variables\":null,\"attachments\":null}\n");
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            assertThat(new ObjectMapper().readTree(line).get("id")).isNotNull();
+        }
+    }
+
+    private String exportCsv(ResultSet... rows) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long exported = exportService.export("ws-1", ActivityQueryRequest.builder().build(), ExportFormat.CSV,
+                stream(List.of(rows), out));
+        assertThat(exported).isEqualTo(rows.length);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private ByteArrayOutputStream stream(List<ResultSet> rows, ByteArrayOutputStream out) {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(3);
+            for (ResultSet rs : rows) {
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(repository).streamRows(eq("ws-1"), any(), anyInt(), any());
+        return out;
+    }
+
+    /**
+     * Row in export column order, see ActivityLogQueryRepository#streamRows
+     */
+    private static ResultSet row(String id, String type, String description, String projectId, String variables)
+            throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString(1)).thenReturn(id);
+        when(rs.getString(2)).thenReturn(type);
+        when(rs.getString(3)).thenReturn(description);
+        when(rs.getString(4)).thenReturn("ws-1");
+        when(rs.getString(5)).thenReturn(projectId);
+        when(rs.getString(7)).thenReturn("user-1");
+        when(rs.getTimestamp(8)).thenReturn(Timestamp.valueOf(CREATED_AT));
+        when(rs.getString(9)).thenReturn(variables);
+        return rs;
+    }
+}
@@ -0,0 +1,118 @@
+package com.ginkgooai.core.workspace.service;
+
+import com.ginkgooai.core.workspace.config.properties.ActivityLogPartitionProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Expiring partitions, with the database stubbed at the JDBC level
+ */
+class ActivityLogPartitionServiceTest {
+
+    private static final YearMonth FAILING = YearMonth.now().minusMonths(14);
+
+    private static final YearMonth DETACHED = YearMonth.now().minusMonths(13);
+
+    private final Connection connection = mock(Connection.class);
+
+    private final Statement statement = mock(Statement.class);
+
+    private final PreparedStatement deleteCounts = mock(PreparedStatement.class);
+
+    private final ActivityLogPartitionProperties properties = new ActivityLogPartitionProperties();
+
+    private ActivityLogPartitionService service;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        properties.setEnabled(true);
+        properties.setPremakeMonths(0);
+        properties.setRetentionMonths(12);
+
+        // Advisory lock taken, upcoming partitions exist already
+        PreparedStatement holds = statementReturning(List.of(true));
+        PreparedStatement partitions = statementReturning(
+                List.of(partition(FAILING), partition(DETACHED), "activity_log_default"));
+        when(connection.prepareStatement(anyString())).thenReturn(holds);
+        when(connection.prepareStatement(contains("pg_inherits"))).thenReturn(partitions);
+        when(connection.prepareStatement(contains("DELETE FROM workspace.activity_log_hourly_count")))
+                .thenReturn(deleteCounts);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.execute(contains("DETACH PARTITION workspace." + partition(FAILING))))
+                .thenThrow(new SQLException("lock timeout"));
+
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.execute(any(ConnectionCallback.class)))
+                .thenAnswer(invocation -> invocation.<ConnectionCallback<?>>getArgument(0).doInConnection(connection));
+        service = new ActivityLogPartitionService(jdbcTemplate, properties);
+    }
+
+    @Test
+    void deletesHourlyCountsOfDetachedPartitionsOnly() throws SQLException {
+        service.maintainPartitions();
+
+        verify(statement).execute(contains("DETACH PARTITION workspace." + partition(DETACHED)));
+        verify(deleteCounts).setTimestamp(1, start(DETACHED));
+        verify(deleteCounts).setTimestamp(2, start(DETACHED.plusMonths(1)));
+        verify(deleteCounts, never()).setTimestamp(1, start(FAILING));
+        verify(deleteCounts, times(1)).executeUpdate();
+        verify(statement, never()).execute(contains("DROP TABLE"));
+    }
+
+    @Test
+    void dropsDetachedPartitionsWhenEnabled() throws SQLException {
+        properties.setDropExpired(true);
+
+        service.maintainPartitions();
+
+        verify(statement).execute("DROP TABLE workspace." + partition(DETACHED));
+        verify(statement, never()).execute("DROP TABLE workspace." + partition(FAILING));
+    }
+
+    private static PreparedStatement statementReturning(List<?> values) throws SQLException {
+        PreparedStatement prepared = mock(PreparedStatement.class);
+        when(prepared.executeQuery()).thenAnswer(invocation -> resultSet(values));
+        return prepared;
+    }
+
+    private static ResultSet resultSet(List<?> values) throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        int[] row = {-1};
+        when(rs.next()).thenAnswer(invocation -> ++row[0] < values.size());
+        when(rs.getBoolean(anyInt())).thenAnswer(invocation -> values.get(row[0]));
+        when(rs.getString(eq(1))).thenAnswer(invocation -> values.get(row[0]));
+        return rs;
+    }
+
+    private static String partition(YearMonth month) {
+        return "activity_log_p" + month.format(DateTimeFormatter.ofPattern("yyyyMM"));
+    }
+
+    private static Timestamp start(YearMonth month) {
+        return Timestamp.valueOf(LocalDateTime.of(month.getYear(), month.getMonth(), 1, 0, 0));
+    }
+}
@@ -0,0 +1,193 @@
+package com.ginkgooai.core.workspace.service;
+
+import com.ginkgooai.core.common.enums.ActivityType;
+import com.ginkgooai.core.common.utils.ContextUtils;
+import com.ginkgooai.core.workspace.config.properties.ActivityLogSearchProperties;
+import com.ginkgooai.core.workspace.domain.ActivityLog;
+import com.ginkgooai.core.workspace.dto.request.ActivityQueryRequest;
+import com.ginkgooai.core.workspace.dto.request.CountMode;
+import com.ginkgooai.core.workspace.dto.request.ExportFormat;
+import com.ginkgooai.core.workspace.repository.ActivityLogBulkRepository;
+import com.ginkgooai.core.workspace.repository.ActivityLogQueryRepository;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mockStatic;
+
+/**
+ * Every statement the activity log read paths send to the database, recorded at the JDBC level against a real
+ * PostgreSQL, must be a query. Runs where Docker is available and is skipped otherwise.
+ */
+// The application class enables Feign clients, which need their base url even in a JPA slice
+@DataJpaTest(properties = "core-identity-uri=http://localhost")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({ActivityLogService.class, ActivityLogExportService.class, ActivityLogBulkRepository.class,
+        ActivityLogQueryRepository.class, ActivityLogSearchProperties.class, ActivityLogReadSqlTest.Recording.class})
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ActivityLogReadSqlTest {
+
+    private static final String WORKSPACE_ID = "ws-1";
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 5, 1, 10, 0);
+
+    /**
+     * Statements executed through the data source since the last {@link #setUp()}
+     */
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @MockitoBean
+    private UserInfoService userInfoService;
+
+    @Autowired
+    private ActivityLogService activityLogService;
+
+    @Autowired
+    private ActivityLogExportService activityLogExportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private MockedStatic<ContextUtils> context;
+
+    @BeforeEach
+    void setUp() {
+        // Four logs per hour from 10:00 to 13:45, so counts cover whole hours as well as partial ones
+        activityLogService.createLogs(IntStream.range(0, 16)
+                .mapToObj(i -> log("m-" + i, START.plusMinutes(15L * i)))
+                .toList());
+        context = mockStatic(ContextUtils.class);
+        context.when(ContextUtils::getWorkspaceId).thenReturn(WORKSPACE_ID);
+        STATEMENTS.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        context.close();
+        jdbcTemplate.execute("TRUNCATE workspace.activity_log, workspace.activity_log_hourly_count");
+    }
+
+    @Test
+    void getLogByIdOnlyQueries() {
+        String id = jdbcTemplate.queryForObject("SELECT id FROM workspace.activity_log LIMIT 1", String.class);
+        STATEMENTS.clear();
+
+        assertThat(activityLogService.getLogById(id).getId()).isEqualTo(id);
+
+        assertOnlyQueries();
+    }
+
+    @Test
+    void searchWithExactCountOnlyQueries() {
+        assertThat(activityLogService.search(ActivityQueryRequest.builder().countMode(CountMode.EXACT).build(),
+                PageRequest.of(0, 5)).getContent()).hasSize(5);
+
+        assertOnlyQueries();
+    }
+
+    @Test
+    void searchByCursorOnlyQueries() {
+        String cursor = activityLogService.searchByCursor(ActivityQueryRequest.builder().build(), null, 5)
+                .getNextCursor();
+        assertThat(activityLogService.searchByCursor(ActivityQueryRequest.builder().build(), cursor, 5).getContent())
+                .hasSize(5);
+
+        assertOnlyQueries();
+    }
+
+    @Test
+    void countActivityLogsOnlyQueries() {
+        assertThat(activityLogService.countActivityLogs(WORKSPACE_ID, START.plusMinutes(20), START.plusHours(3)
+                .plusMinutes(20), null, null, null)).isEqualTo(12);
+
+        assertOnlyQueries();
+    }
+
+    @Test
+    void exportOnlyQueries() throws IOException {
+        assertThat(activityLogExportService.export(WORKSPACE_ID, ActivityQueryRequest.builder().build(),
+                ExportFormat.NDJSON, new ByteArrayOutputStream())).isEqualTo(16);
+
+        assertOnlyQueries();
+    }
+
+    private static void assertOnlyQueries() {
+        assertThat(STATEMENTS).isNotEmpty().allSatisfy(sql -> assertThat(sql.strip().toUpperCase(Locale.ROOT))
+                .startsWith("SELECT")
+                .doesNotContain("UPDATE ", "INSERT ", "DELETE "));
+    }
+
+    private static ActivityLog log(String messageId, LocalDateTime createdAt) {
+        return ActivityLog.builder()
+                .activityType(ActivityType.PROJECT_CREATED)
+                .description(ActivityType.PROJECT_CREATED.getTemplate())
+                .workspaceId(WORKSPACE_ID)
+                .createdBy("user-1")
+                .messageId(messageId)
+                .createdAt(createdAt)
+                .build();
+    }
+
+    @TestConfiguration
+    static class Recording {
+
+        @Bean
+        static BeanPostProcessor recordingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource dataSource) {
+                        return ProxyDataSourceBuilder.create(dataSource)
+                                .name(beanName)
+                                .afterQuery((execution, queries) -> queries.forEach(query -> STATEMENTS.add(query.getQuery())))
+                                .build();
+                    }
+                    return bean;
+                }
+            };
+        }
+
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager();
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.ginkgooai.core.workspace.service;
+
+import com.ginkgooai.core.common.enums.ActivityType;
+import com.ginkgooai.core.workspace.client.identity.dto.UserInfo;
+import com.ginkgooai.core.workspace.config.cache.CacheConfig;
+import com.ginkgooai.core.workspace.dto.request.ActivityQueryRequest;
+import com.ginkgooai.core.workspace.dto.request.CountMode;
+import com.ginkgooai.core.workspace.dto.response.ActivityLogResponse;
+import com.ginkgooai.core.workspace.dto.response.ActivityLogSliceResponse;
+import com.ginkgooai.core.workspace.repository.ActivityLogBulkRepository;
+import com.ginkgooai.core.workspace.repository.ActivityLogQueryRepository;
+import com.ginkgooai.core.workspace.repository.ActivityLogRepository;
+import com.ginkgooai.core.workspace.repository.ActivityLogView;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.reflect.Method;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * The read path must never write: read methods run in read-only transactions, where Hibernate does not flush,
+ * and list reads go through unmanaged projections only, so no entity can become dirty and cause an UPDATE
+ */
+class ActivityLogServiceTest {
+
+    private final ActivityLogRepository activityLogRepository = mock(ActivityLogRepository.class);
+
+    private final ActivityLogBulkRepository activityLogBulkRepository = mock(ActivityLogBulkRepository.class);
+
+    private final ActivityLogQueryRepository activityLogQueryRepository = mock(ActivityLogQueryRepository.class);
+
+    private final UserInfoService userInfoService = mock(UserInfoService.class);
+
+    private final ActivityLogService activityLogService = new ActivityLogService(activityLogRepository,
+            activityLogBulkRepository, activityLogQueryRepository, mock(CacheManager.class), userInfoService);
+
+    @ParameterizedTest
+    @ValueSource(strings = {"search", "searchByCursor", "countActivityLogs", "getLogById"})
+    void readMethodsRunInReadOnlyTransactions(String methodName) {
+        Method method = Arrays.stream(ActivityLogService.class.getMethods())
+                .filter(candidate -> candidate.getName().equals(methodName))
+                .findFirst()
+                .orElseThrow();
+
+        assertThat(method.getAnnotation(Transactional.class)).isNotNull()
+                .extracting(Transactional::readOnly).isEqualTo(true);
+    }
+
+    @Test
+    void searchReadsProjectionsWithoutTouchingEntities() {
+        Pageable pageable = PageRequest.of(0, 20);
+        ActivityLogView view = view("log-1", Map.of("projectName", "Apollo"));
+        when(activityLogQueryRepository.findSlice(any(), eq(pageable), eq(false)))
+                .thenReturn(new SliceImpl<>(List.of(view), pageable, false));
+        when(userInfoService.getUsers(anySet())).thenReturn(Map.of("user-1", user("Ann")));
+
+        Slice<ActivityLogResponse> result = activityLogService.search(
+                ActivityQueryRequest.builder().countMode(CountMode.NONE).build(), pageable);
+
+        assertThat(result.getContent()).singleElement()
+                .satisfies(response -> assertThat(response.getDescription()).isEqualTo("Ann created project Apollo"));
+        verifyNoInteractions(activityLogRepository, activityLogBulkRepository);
+    }
+
+    @Test
+    void searchByCursorReadsProjectionsWithoutTouchingEntities() {
+        when(activityLogQueryRepository.findViews(any(), any(), anyInt(), eq(false)))
+                .thenReturn(List.of(view("log-2", Map.of("projectName", "Apollo")), view("log-1", null)));
+        when(userInfoService.getUsers(anySet())).thenReturn(Map.of());
+
+        ActivityLogSliceResponse result = activityLogService.searchByCursor(ActivityQueryRequest.builder().build(),
+                null, 1);
+
+        assertThat(result.isHasNext()).isTrue();
+        assertThat(result.getContent()).singleElement()
+                .satisfies(response -> assertThat(response.getDescription()).isEqualTo("unknown created project Apollo"));
+        verifyNoInteractions(activityLogRepository, activityLogBulkRepository);
+    }
+
+    @Test
+    void readsAttachmentsOnlyWhenRequested() {
+        Map<String, Object> attachments = Map.of("file", "contract.pdf");
+        ActivityLogView withAttachments = new ActivityLogView("log-1", ActivityType.PROJECT_CREATED, "{user} left",
+                "ws-1", null, null, null, LocalDateTime.now(), null, attachments);
+        when(activityLogQueryRepository.findViews(any(), any(), anyInt(), eq(true))).thenReturn(List.of(withAttachments));
+        when(activityLogQueryRepository.findViews(any(), any(), anyInt(), eq(false))).thenReturn(List.of(view("log-1", null)));
+
+        ActivityLogSliceResponse requested = activityLogService.searchByCursor(
+                ActivityQueryRequest.builder().includeAttachments(true).build(), null, 10);
+        ActivityLogSliceResponse omitted = activityLogService.searchByCursor(ActivityQueryRequest.builder().build(),
+                null, 10);
+
+        assertThat(requested.getContent()).singleElement()
+                .satisfies(response -> assertThat(response.getAttachments()).isEqualTo(attachments));
+        assertThat(omitted.getContent()).singleElement()
+                .satisfies(response -> assertThat(response.getAttachments()).isNull());
+    }
+
+    @Test
+    void exactCountIsNeverServedFromTheCache() {
+        ActivityLogService service = serviceWithCountCache();
+        stubSinglePage();
+        when(activityLogRepository.count(any(Specification.class))).thenReturn(5L, 6L);
+        ActivityQueryRequest request = ActivityQueryRequest.builder().countMode(CountMode.EXACT).build();
+
+        assertThat(((Page<ActivityLogResponse>) service.search(request, PageRequest.of(0, 1))).getTotalElements())
+                .isEqualTo(5);
+        assertThat(((Page<ActivityLogResponse>) service.search(request, PageRequest.of(0, 1))).getTotalElements())
+                .isEqualTo(6);
+    }
+
+    @Test
+    void cachedCountReusesAnEarlierExactCount() {
+        ActivityLogService service = serviceWithCountCache();
+        stubSinglePage();
+        when(activityLogRepository.count(any(Specification.class))).thenReturn(5L, 6L);
+
+        service.search(ActivityQueryRequest.builder().countMode(CountMode.EXACT).build(), PageRequest.of(0, 1));
+        Slice<ActivityLogResponse> cached = service.search(
+                ActivityQueryRequest.builder().countMode(CountMode.CACHED).build(), PageRequest.of(0, 1));
+
+        assertThat(((Page<ActivityLogResponse>) cached).getTotalElements()).isEqualTo(5);
+        verify(activityLogRepository, times(1)).count(any(Specification.class));
+    }
+
+    private ActivityLogService serviceWithCountCache() {
+        return new ActivityLogService(activityLogRepository, activityLogBulkRepository, activityLogQueryRepository,
+                new ConcurrentMapCacheManager(CacheConfig.ACTIVITY_LOG_COUNT_CACHE), userInfoService);
+    }
+
+    /**
+     * A first page with a next page, so the total has to be counted
+     */
+    private void stubSinglePage() {
+        when(activityLogQueryRepository.findSlice(any(), any(), eq(false))).thenAnswer(invocation -> new SliceImpl<>(
+                List.of(view("log-1", null)), invocation.getArgument(1), true));
+        when(userInfoService.getUsers(anySet())).thenReturn(Map.of());
+    }
+
+    @ParameterizedTest
+    @CsvSource(nullValues = "null", value = {
+            // start and end inside hours: 11:00 to 13:00 from counters, 10:20 to 11:00 and 13:00 to 13:20 counted
+            "2024-05-01T10:20, 2024-05-01T13:20, 2024-05-01T11:00, 2024-05-01T13:00, 2, 102",
+            // start on the hour: nothing is counted before the first whole hour
+            "2024-05-01T10:00, 2024-05-01T13:20, 2024-05-01T10:00, 2024-05-01T13:00, 1, 101",
+            // end on the hour: the end itself is still counted, it is included in the range
+            "2024-05-01T10:20, 2024-05-01T13:00, 2024-05-01T11:00, 2024-05-01T13:00, 2, 102",
+            "2024-05-01T10:00, 2024-05-01T13:00, 2024-05-01T10:00, 2024-05-01T13:00, 1, 101",
+            // both edges in the same hour, or in adjacent hours without a whole hour between them
+            "2024-05-01T10:10, 2024-05-01T10:50, null, null, 1, 1",
+            "2024-05-01T10:30, 2024-05-01T11:30, null, null, 1, 1",
+            "2024-05-01T10:00, 2024-05-01T10:00, null, null, 1, 1",
+            // open ranges are counted on activity_log
+            "null, 2024-05-01T13:20, null, null, 1, 1",
+            "2024-05-01T10:20, null, null, null, 1, 1",
+            "null, null, null, null, 1, 1"
+    })
+    void countActivityLogsSumsWholeHoursAndCountsTheEdges(LocalDateTime start, LocalDateTime end,
+                                                         LocalDateTime firstBucket, LocalDateTime lastBucket,
+                                                         int edgeCounts, long expected) {
+        when(activityLogRepository.count(any(Specification.class))).thenReturn(1L);
+        when(activityLogQueryRepository.sumHourlyCounts(eq("ws-1"), any(), any(), any(), any(), any()))
+                .thenReturn(100L);
+
+        assertThat(activityLogService.countActivityLogs("ws-1", start, end, null, null, null)).isEqualTo(expected);
+
+        verify(activityLogRepository, times(edgeCounts)).count(any(Specification.class));
+        if (firstBucket == null) {
+            verify(activityLogQueryRepository, never()).sumHourlyCounts(any(), any(), any(), any(), any(), any());
+        } else {
+            verify(activityLogQueryRepository).sumHourlyCounts("ws-1", firstBucket, lastBucket, null, null, null);
+        }
+    }
+
+    private static ActivityLogView view(String id, Map<String, Object> variables) {
+        return new ActivityLogView(id, ActivityType.PROJECT_CREATED, "{user} created project {projectName}", "ws-1",
+                null, null, "user-1", LocalDateTime.now().minusMinutes(5),
+                variables == null ? null : new HashMap<>(variables), null);
+    }
+
+    private static UserInfo user(String name) {
+        UserInfo user = new UserInfo();
+        user.setId("user-1");
+        user.setName(name);
+        return user;
+    }
+}
@@ -0,0 +1,126 @@
+package com.ginkgooai.core.workspace.service;
+
+import com.ginkgooai.core.workspace.client.identity.UserClient;
+import com.ginkgooai.core.workspace.client.identity.dto.UserInfo;
+import com.ginkgooai.core.workspace.config.cache.CacheConfig;
+import com.ginkgooai.core.workspace.config.properties.ActivityLogSearchProperties;
+import com.ginkgooai.core.workspace.config.properties.UserInfoCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.AbstractCacheManager;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.util.ByteUtils;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Batched access to the shared Redis level of the user cache
+ */
+class UserInfoServiceTest {
+
+    private final UserClient userClient = mock(UserClient.class);
+
+    private final RedisConnection connection = mock(RedisConnection.class);
+
+    private final RedisStringCommands commands = mock(RedisStringCommands.class);
+
+    private final UserInfoCacheProperties properties = new UserInfoCacheProperties();
+
+    private RedisCacheConfiguration sharedConfig;
+
+    private UserInfoService service;
+
+    @BeforeEach
+    void setUp() {
+        RedisConnectionFactory connectionFactory = mock(RedisConnectionFactory.class);
+        when(connectionFactory.getConnection()).thenReturn(connection);
+        when(connection.stringCommands()).thenReturn(commands);
+
+        CacheConfig cacheConfig = new CacheConfig(connectionFactory, properties, new ActivityLogSearchProperties());
+        CacheManager cacheManager = cacheConfig.cacheManager();
+        ((AbstractCacheManager) cacheManager).afterPropertiesSet();
+        sharedConfig = cacheConfig.defaultConfig();
+        service = new UserInfoService(userClient, cacheManager, connectionFactory, properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void readsAllUsersFromRedisWithOneMget() {
+        stubShared(Map.of("u-1", user("u-1"), "u-3", user("u-3")));
+        when(userClient.getUsersByIds(anyCollection())).thenReturn(ResponseEntity.ok(List.of(user("u-2"))));
+
+        Map<String, UserInfo> users = service.getUsers(List.of("u-1", "u-2", "u-3"));
+
+        assertThat(users).containsOnlyKeys("u-1", "u-2", "u-3");
+        verify(commands, times(1)).mGet(any(byte[][].class));
+        verify(commands, never()).get(any());
+        verify(userClient).getUsersByIds(List.of("u-2"));
+    }
+
+    @Test
+    void writesFetchedUsersBackInOnePipeline() {
+        stubShared(Map.of());
+        when(userClient.getUsersByIds(anyCollection())).thenReturn(ResponseEntity.ok(List.of(user("u-1"), user("u-2"))));
+
+        service.getUsers(List.of("u-1", "u-2"));
+
+        Expiration ttl = Expiration.from(Duration.ofMillis(properties.getExpireAfterWrite()));
+        verify(connection, times(1)).openPipeline();
+        verify(commands).set(key("u-1"), value(user("u-1")), ttl, RedisStringCommands.SetOption.upsert());
+        verify(commands).set(key("u-2"), value(user("u-2")), ttl, RedisStringCommands.SetOption.upsert());
+        verify(connection, times(1)).closePipeline();
+    }
+
+    @Test
+    void stillAsksTheIdentityServiceWhenRedisIsDown() {
+        when(commands.mGet(any(byte[][].class))).thenThrow(new IllegalStateException("down"));
+        when(userClient.getUsersByIds(anyCollection())).thenReturn(ResponseEntity.ok(List.of(user("u-1"))));
+
+        assertThat(service.getUsers(List.of("u-1"))).containsOnlyKeys("u-1");
+    }
+
+    /**
+     * Answer MGET with the given users, in the order their keys are asked for
+     */
+    private void stubShared(Map<String, UserInfo> users) {
+        when(commands.mGet(any(byte[][].class))).thenAnswer(invocation -> Arrays.stream(invocation.getArguments())
+                .map(key -> new String((byte[]) key, StandardCharsets.UTF_8))
+                .map(key -> users.get(key.substring(key.indexOf("::") + 2)))
+                .map(user -> user == null ? null : value(user))
+                .toList());
+    }
+
+    private static byte[] key(String id) {
+        return (CacheConfig.USER_INFO_CACHE + "::" + id).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private byte[] value(UserInfo user) {
+        return ByteUtils.getBytes(sharedConfig.getValueSerializationPair().write(user));
+    }
+
+    private static UserInfo user(String id) {
+        UserInfo user = new UserInfo();
+        user.setId(id);
+        user.setName("User " + id);
+        return user;
+    }
+}
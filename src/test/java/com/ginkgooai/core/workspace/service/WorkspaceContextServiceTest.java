@@ -0,0 +1,76 @@
+package com.ginkgooai.core.workspace.service;
+
+import com.ginkgooai.core.common.constant.RedisKey;
+import com.ginkgooai.core.workspace.domain.Workspace;
+import com.ginkgooai.core.workspace.repository.WorkspaceRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Batched workspace context lookups, with every pipeline run against a recording mock
+ */
+class WorkspaceContextServiceTest {
+
+    @SuppressWarnings("unchecked")
+    private final RedisTemplate<String, String> redisTemplate = mock(RedisTemplate.class);
+
+    @SuppressWarnings("unchecked")
+    private final RedisOperations<String, String> pipeline = mock(RedisOperations.class);
+
+    @SuppressWarnings("unchecked")
+    private final ValueOperations<String, String> pipelinedValues = mock(ValueOperations.class);
+
+    private final WorkspaceRepository workspaceRepository = mock(WorkspaceRepository.class);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void writesCacheMissesBackInOnePipeline() {
+        List<String> users = List.of("user-1", "user-2", "user-3");
+        when(pipeline.opsForValue()).thenReturn(pipelinedValues);
+        // Every context is missing, so the lookup pipeline answers null for each GET and TTL
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenAnswer(invocation -> {
+            invocation.<SessionCallback<?>>getArgument(0).execute(pipeline);
+            return new ArrayList<>(Collections.nCopies(users.size() * 2, null));
+        });
+        when(workspaceRepository.findByCreatedByIn(anyCollection())).thenReturn(List.of(
+                workspace("ws-1", "user-1"), workspace("ws-2", "user-2"), workspace("ws-3", "user-2")));
+        WorkspaceContextService service = new WorkspaceContextService(redisTemplate, workspaceRepository);
+
+        assertThat(service.getUserWorkspaceContexts(users))
+                .containsEntry("user-1", "ws-1")
+                .containsEntry("user-2", "ws-2")
+                .doesNotContainKey("user-3");
+
+        // One pipeline to read, one to write back
+        verify(redisTemplate, times(2)).executePipelined(any(SessionCallback.class));
+        verify(redisTemplate, never()).opsForValue();
+        verify(pipelinedValues).set(RedisKey.WORKSPACE_CONTEXT_KEY_PREFIX + "user-1", "ws-1",
+                24 * 60 * 60, TimeUnit.SECONDS);
+        verify(pipelinedValues).set(RedisKey.WORKSPACE_CONTEXT_KEY_PREFIX + "user-2", "ws-2,ws-3",
+                24 * 60 * 60, TimeUnit.SECONDS);
+    }
+
+    private static Workspace workspace(String id, String createdBy) {
+        Workspace workspace = new Workspace();
+        workspace.setId(id);
+        workspace.setCreatedBy(createdBy);
+        return workspace;
+    }
+}